@@ -2,14 +2,11 @@ package com.eduquest.controller;
 
 import com.eduquest.dto.AchievementDto;
 import com.eduquest.entity.Achievement;
-import com.eduquest.entity.User;
-import com.eduquest.security.UserDetailsImpl;
+import com.eduquest.security.CurrentUser;
 import com.eduquest.service.AchievementService;
-import com.eduquest.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -23,18 +20,11 @@ public class AchievementController {
     @Autowired
     private AchievementService achievementService;
     
-    @Autowired
-    private UserService userService;
-    
     @GetMapping
     @PreAuthorize("hasRole('STUDENT') or hasRole('INSTRUCTOR') or hasRole('ADMIN')")
-    public ResponseEntity<List<AchievementDto>> getMyAchievements(Authentication authentication) {
+    public ResponseEntity<List<AchievementDto>> getMyAchievements(CurrentUser currentUser) {
         try {
-            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-            User user = userService.getUserById(userDetails.getId())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            List<Achievement> achievements = achievementService.getUserAchievements(user);
+            List<Achievement> achievements = achievementService.getUserAchievementsById(currentUser.getId());
             List<AchievementDto> achievementDtos = achievements.stream()
                     .map(AchievementDto::new)
                     .collect(Collectors.toList());
@@ -62,10 +52,9 @@ public class AchievementController {
     
     @GetMapping("/count")
     @PreAuthorize("hasRole('STUDENT') or hasRole('INSTRUCTOR') or hasRole('ADMIN')")
-    public ResponseEntity<?> getMyAchievementCount(Authentication authentication) {
+    public ResponseEntity<?> getMyAchievementCount(CurrentUser currentUser) {
         try {
-            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-            Long count = achievementService.getUserAchievementCount(userDetails.getId());
+            Long count = achievementService.getUserAchievementCount(currentUser.getId());
             
             return ResponseEntity.ok("{\"achievementCount\": " + count + "}");
         } catch (RuntimeException e) {
@@ -6,18 +6,26 @@ import com.eduquest.dto.UserRegistrationDto;
 import com.eduquest.dto.UserResponseDto;
 import com.eduquest.entity.User;
 import com.eduquest.security.JwtUtils;
+import com.eduquest.security.PasswordHashingExecutor;
+import com.eduquest.security.TokenRevocationService;
 import com.eduquest.security.UserDetailsImpl;
 import com.eduquest.service.UserService;
+import io.jsonwebtoken.Claims;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -34,36 +42,73 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
     
+    @Autowired
+    PasswordHashingExecutor passwordHashingExecutor;
+    
+    @Autowired
+    TokenRevocationService tokenRevocationService;
+    
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody UserLoginDto loginRequest) {
-        
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
-        
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken(authentication);
-        
-        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-        List<String> roles = userDetails.getAuthorities().stream()
-                .map(item -> item.getAuthority())
-                .collect(Collectors.toList());
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody UserLoginDto loginRequest) {
+        CompletableFuture<Authentication> authFuture;
+        try {
+            // BCrypt verification (and any rehash) runs on the hashing pool, not the servlet thread
+            authFuture = passwordHashingExecutor.submit(() -> authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword())));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(hashingBusy());
+        }
         
-        return ResponseEntity.ok(new JwtResponseDto(jwt,
-                userDetails.getId(),
-                userDetails.getName(),
-                userDetails.getEmail(),
-                roles.get(0)));
+        return authFuture.<ResponseEntity<?>>thenApply(authentication -> {
+            String jwt = jwtUtils.generateJwtToken(authentication);
+            
+            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+            List<String> roles = userDetails.getAuthorities().stream()
+                    .map(item -> item.getAuthority())
+                    .collect(Collectors.toList());
+            
+            return ResponseEntity.ok(new JwtResponseDto(jwt,
+                    userDetails.getId(),
+                    userDetails.getName(),
+                    userDetails.getEmail(),
+                    roles.get(0)));
+        }).exceptionally(ex -> {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof AuthenticationException) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Error: Unauthorized");
+            }
+            throw ex instanceof CompletionException ? (CompletionException) ex : new CompletionException(cause);
+        });
     }
     
     @PostMapping("/signup")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody UserRegistrationDto signUpRequest) {
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody UserRegistrationDto signUpRequest) {
+        // Cheap duplicate check first so taken emails never cost a BCrypt round
+        if (userService.existsByEmail(signUpRequest.getEmail())) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Error: Email is already in use!"));
+        }
+        
+        CompletableFuture<String> hashFuture;
         try {
-            User user = userService.createUser(signUpRequest);
+            hashFuture = passwordHashingExecutor.encode(signUpRequest.getPassword());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(hashingBusy());
+        }
+        
+        return hashFuture.<ResponseEntity<?>>thenApply(encodedPassword -> {
+            User user = userService.createUser(signUpRequest, encodedPassword);
             UserResponseDto userResponse = new UserResponseDto(user);
             return ResponseEntity.ok(userResponse);
-        } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(e.getMessage());
-        }
+        }).exceptionally(ex -> {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            return ResponseEntity.badRequest().body(cause.getMessage());
+        });
+    }
+    
+    private ResponseEntity<?> hashingBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Error: Authentication service is busy, please retry");
     }
     
     @GetMapping("/me")
@@ -82,4 +127,36 @@ public class AuthController {
         UserResponseDto userResponse = new UserResponseDto(user);
         return ResponseEntity.ok(userResponse);
     }
+    
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = "Authorization", required = false) String headerAuth,
+                                    Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetailsImpl)
+                || headerAuth == null || !headerAuth.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        
+        Claims claims = jwtUtils.verifyJwtToken(headerAuth.substring(7));
+        if (claims == null) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        if (!tokenRevocationService.revokeToken(claims, userDetails.getId())) {
+            // Tokens without an id can only be revoked together with the user's others
+            return ResponseEntity.ok("Logged out; this token has no id, so all sessions have been revoked");
+        }
+        return ResponseEntity.ok("Logged out successfully");
+    }
+    
+    @PostMapping("/logout-all")
+    public ResponseEntity<?> logoutAllSessions(Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserDetailsImpl)) {
+            return ResponseEntity.status(401).body("Unauthorized");
+        }
+        
+        UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
+        tokenRevocationService.revokeAllForUser(userDetails.getId());
+        return ResponseEntity.ok("All sessions have been revoked");
+    }
 }
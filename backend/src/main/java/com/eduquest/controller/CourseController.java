@@ -2,21 +2,25 @@ package com.eduquest.controller;
 
 import com.eduquest.dto.CourseCreateDto;
 import com.eduquest.dto.CourseDto;
+import com.eduquest.dto.CourseFacetsDto;
+import com.eduquest.dto.CourseFilterDto;
+import com.eduquest.dto.CourseSearchResultDto;
+import com.eduquest.dto.CourseSuggestionDto;
+import com.eduquest.dto.CursorPageDto;
 import com.eduquest.entity.Course;
-import com.eduquest.entity.User;
-import com.eduquest.security.UserDetailsImpl;
+import com.eduquest.security.CurrentUser;
+import com.eduquest.service.CourseFilterIndex;
 import com.eduquest.service.CourseService;
-import com.eduquest.service.UserService;
+import com.eduquest.service.CourseSuggester;
+import com.eduquest.service.PopularCourses;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -26,16 +30,28 @@ public class CourseController {
     @Autowired
     private CourseService courseService;
     
+    // Read directly rather than through the transactional service so these never take a connection
     @Autowired
-    private UserService userService;
+    private CourseSuggester courseSuggester;
+    
+    @Autowired
+    private CourseFilterIndex courseFilterIndex;
+    
+    @Autowired
+    private PopularCourses popularCourses;
     
     @GetMapping
-    public ResponseEntity<List<CourseDto>> getAllCourses() {
-        List<Course> courses = courseService.getAllCourses();
-        List<CourseDto> courseDtos = courses.stream()
-                .map(CourseDto::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(courseDtos);
+    public ResponseEntity<CursorPageDto<CourseDto>> getAllCourses(CourseFilterDto filter,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = "20") int limit) {
+        try {
+            CursorPageDto<CourseDto> page = filter.hasCriteria()
+                    ? courseService.getFilteredCoursesPage(filter, cursor, limit)
+                    : courseService.getCoursesPage(cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
     }
     
     @GetMapping("/{id}")
@@ -51,13 +67,9 @@ public class CourseController {
     
     @PostMapping
     @PreAuthorize("hasRole('INSTRUCTOR') or hasRole('ADMIN')")
-    public ResponseEntity<?> createCourse(@Valid @RequestBody CourseCreateDto courseDto, Authentication authentication) {
+    public ResponseEntity<?> createCourse(@Valid @RequestBody CourseCreateDto courseDto, CurrentUser currentUser) {
         try {
-            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-            User instructor = userService.getUserById(userDetails.getId())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            Course course = courseService.createCourse(courseDto, instructor);
+            Course course = courseService.createCourse(courseDto, currentUser.getUser());
             CourseDto courseResponse = new CourseDto(course);
             return ResponseEntity.ok(courseResponse);
         } catch (RuntimeException e) {
@@ -67,13 +79,9 @@ public class CourseController {
     
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('INSTRUCTOR') or hasRole('ADMIN')")
-    public ResponseEntity<?> updateCourse(@PathVariable Long id, @Valid @RequestBody CourseCreateDto courseDto, Authentication authentication) {
+    public ResponseEntity<?> updateCourse(@PathVariable Long id, @Valid @RequestBody CourseCreateDto courseDto, CurrentUser currentUser) {
         try {
-            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-            User currentUser = userService.getUserById(userDetails.getId())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            Course course = courseService.updateCourse(id, courseDto, currentUser);
+            Course course = courseService.updateCourse(id, courseDto, currentUser.getUser());
             CourseDto courseResponse = new CourseDto(course);
             return ResponseEntity.ok(courseResponse);
         } catch (RuntimeException e) {
@@ -83,13 +91,9 @@ public class CourseController {
     
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<?> deleteCourse(@PathVariable Long id, Authentication authentication) {
+    public ResponseEntity<?> deleteCourse(@PathVariable Long id, CurrentUser currentUser) {
         try {
-            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-            User adminUser = userService.getUserById(userDetails.getId())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            courseService.deleteCourse(id, adminUser);
+            courseService.deleteCourse(id, currentUser.getUser());
             return ResponseEntity.ok("Course deleted successfully");
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -97,47 +101,74 @@ public class CourseController {
     }
     
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<CourseDto>> getCoursesByCategory(@PathVariable String category) {
-        List<Course> courses = courseService.getCoursesByCategory(category);
-        List<CourseDto> courseDtos = courses.stream()
-                .map(CourseDto::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(courseDtos);
+    public ResponseEntity<CursorPageDto<CourseDto>> getCoursesByCategory(@PathVariable String category,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(defaultValue = "20") int limit) {
+        try {
+            CursorPageDto<CourseDto> page = courseService.getCoursesByCategoryPage(category, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
     }
     
     @GetMapping("/level/{level}")
-    public ResponseEntity<List<CourseDto>> getCoursesByLevel(@PathVariable Course.Level level) {
-        List<Course> courses = courseService.getCoursesByLevel(level);
-        List<CourseDto> courseDtos = courses.stream()
-                .map(CourseDto::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(courseDtos);
+    public ResponseEntity<CursorPageDto<CourseDto>> getCoursesByLevel(@PathVariable Course.Level level,
+                                                                      @RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "20") int limit) {
+        try {
+            CursorPageDto<CourseDto> page = courseService.getCoursesByLevelPage(level, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<CourseDto>> searchCourses(@RequestParam String q) {
-        List<Course> courses = courseService.searchCourses(q);
-        List<CourseDto> courseDtos = courses.stream()
-                .map(CourseDto::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(courseDtos);
+    public ResponseEntity<CursorPageDto<CourseSearchResultDto>> searchCourses(@RequestParam String q,
+                                                                              @RequestParam(required = false) String cursor,
+                                                                              @RequestParam(defaultValue = "20") int limit) {
+        try {
+            CursorPageDto<CourseSearchResultDto> page = courseService.searchCoursesPage(q, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+    }
+    
+    @GetMapping("/facets")
+    public ResponseEntity<CourseFacetsDto> getCourseFacets(CourseFilterDto filter) {
+        return ResponseEntity.ok(courseFilterIndex.getFacets(filter.hasCriteria() ? filter : null));
+    }
+    
+    @GetMapping("/suggest")
+    public ResponseEntity<List<CourseSuggestionDto>> suggestCourses(@RequestParam String prefix,
+                                                                    @RequestParam(defaultValue = "8") int limit) {
+        return ResponseEntity.ok(courseSuggester.suggest(prefix, Math.min(limit, courseSuggester.getTopK())));
     }
     
     @GetMapping("/popular")
-    public ResponseEntity<List<CourseDto>> getPopularCourses() {
-        List<Course> courses = courseService.getPopularCourses();
-        List<CourseDto> courseDtos = courses.stream()
-                .map(CourseDto::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(courseDtos);
+    public ResponseEntity<CursorPageDto<CourseDto>> getPopularCourses(@RequestParam(required = false) String cursor,
+                                                                      @RequestParam(defaultValue = "20") int limit) {
+        try {
+            CursorPageDto<CourseDto> page = popularCourses.findPage(cursor, limit);
+            if (page == null) {
+                page = courseService.getPopularCoursesPage(cursor, limit);
+            }
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
     }
     
     @GetMapping("/recent")
-    public ResponseEntity<List<CourseDto>> getRecentCourses() {
-        List<Course> courses = courseService.getRecentCourses();
-        List<CourseDto> courseDtos = courses.stream()
-                .map(CourseDto::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(courseDtos);
+    public ResponseEntity<CursorPageDto<CourseDto>> getRecentCourses(@RequestParam(required = false) String cursor,
+                                                                     @RequestParam(defaultValue = "20") int limit) {
+        try {
+            CursorPageDto<CourseDto> page = courseService.getRecentCoursesPage(cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
     }
 }
@@ -1,14 +1,11 @@
 package com.eduquest.controller;
 
 import com.eduquest.dto.DashboardDto;
-import com.eduquest.entity.User;
-import com.eduquest.security.UserDetailsImpl;
+import com.eduquest.security.CurrentUser;
 import com.eduquest.service.DashboardService;
-import com.eduquest.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
@@ -19,18 +16,11 @@ public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
     
-    @Autowired
-    private UserService userService;
-    
     @GetMapping
     @PreAuthorize("hasRole('STUDENT') or hasRole('INSTRUCTOR') or hasRole('ADMIN')")
-    public ResponseEntity<DashboardDto> getDashboard(Authentication authentication) {
+    public ResponseEntity<DashboardDto> getDashboard(CurrentUser currentUser) {
         try {
-            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-            User user = userService.getUserById(userDetails.getId())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            DashboardDto dashboard = dashboardService.getUserDashboard(user);
+            DashboardDto dashboard = dashboardService.getUserDashboard(currentUser.getId());
             return ResponseEntity.ok(dashboard);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(null);
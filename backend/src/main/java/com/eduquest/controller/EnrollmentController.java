@@ -1,21 +1,30 @@
 package com.eduquest.controller;
 
+import com.eduquest.dto.CohortEnrollmentDto;
+import com.eduquest.dto.CohortEnrollmentResultDto;
 import com.eduquest.dto.EnrollmentDto;
+import com.eduquest.dto.ProgressBatchDto;
+import com.eduquest.dto.ProgressResultDto;
 import com.eduquest.dto.ProgressUpdateDto;
 import com.eduquest.entity.Enrollment;
-import com.eduquest.entity.User;
-import com.eduquest.security.UserDetailsImpl;
+import com.eduquest.security.CurrentUser;
 import com.eduquest.service.EnrollmentService;
-import com.eduquest.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -26,17 +35,14 @@ public class EnrollmentController {
     private EnrollmentService enrollmentService;
     
     @Autowired
-    private UserService userService;
+    private ObjectMapper objectMapper;
     
     @PostMapping("/{courseId}")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<?> enrollInCourse(@PathVariable Long courseId, Authentication authentication) {
+    public ResponseEntity<?> enrollInCourse(@PathVariable Long courseId, CurrentUser currentUser) {
         try {
-            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-            User user = userService.getUserById(userDetails.getId())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            Enrollment enrollment = enrollmentService.enrollUserInCourse(courseId, user);
+            // Repeating the request returns the existing enrollment
+            Enrollment enrollment = enrollmentService.enroll(courseId, currentUser.getId(), currentUser.getRole());
             EnrollmentDto enrollmentDto = new EnrollmentDto(enrollment);
             return ResponseEntity.ok(enrollmentDto);
         } catch (RuntimeException e) {
@@ -46,15 +52,21 @@ public class EnrollmentController {
     
     @PutMapping("/{courseId}/progress")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<?> updateProgress(@PathVariable Long courseId, @Valid @RequestBody ProgressUpdateDto progressDto, Authentication authentication) {
+    public ResponseEntity<?> updateProgress(@PathVariable Long courseId, @Valid @RequestBody ProgressUpdateDto progressDto, CurrentUser currentUser) {
         try {
-            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-            User user = userService.getUserById(userDetails.getId())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            Enrollment enrollment = enrollmentService.updateProgress(courseId, progressDto, user);
-            EnrollmentDto enrollmentDto = new EnrollmentDto(enrollment);
-            return ResponseEntity.ok(enrollmentDto);
+            ProgressResultDto result = enrollmentService.updateProgress(courseId, progressDto.getProgress(), currentUser.getId());
+            return ResponseEntity.ok(result);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @PostMapping("/progress:batch")
+    @PreAuthorize("hasRole('STUDENT')")
+    public ResponseEntity<?> updateProgressBatch(@Valid @RequestBody ProgressBatchDto batchDto, CurrentUser currentUser) {
+        try {
+            List<ProgressResultDto> results = enrollmentService.updateProgressBatch(currentUser.getId(), batchDto.getEntries());
+            return ResponseEntity.ok(results);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -62,17 +74,9 @@ public class EnrollmentController {
     
     @GetMapping("/my-courses")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<List<EnrollmentDto>> getMyCourses(Authentication authentication) {
+    public ResponseEntity<List<EnrollmentDto>> getMyCourses(CurrentUser currentUser) {
         try {
-            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-            User user = userService.getUserById(userDetails.getId())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            List<Enrollment> enrollments = enrollmentService.getUserEnrollments(user);
-            List<EnrollmentDto> enrollmentDtos = enrollments.stream()
-                    .map(EnrollmentDto::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(enrollmentDtos);
+            return ResponseEntity.ok(enrollmentService.getUserEnrollmentDtos(currentUser.getId()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(null);
         }
@@ -80,13 +84,9 @@ public class EnrollmentController {
     
     @GetMapping("/my-courses/{courseId}")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<?> getMyCourseEnrollment(@PathVariable Long courseId, Authentication authentication) {
+    public ResponseEntity<?> getMyCourseEnrollment(@PathVariable Long courseId, CurrentUser currentUser) {
         try {
-            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-            User user = userService.getUserById(userDetails.getId())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            var enrollmentOpt = enrollmentService.getEnrollmentByUserAndCourseId(user, courseId);
+            var enrollmentOpt = enrollmentService.getEnrollmentByUserAndCourseId(currentUser.getReference(), courseId);
             if (enrollmentOpt.isPresent()) {
                 EnrollmentDto enrollmentDto = new EnrollmentDto(enrollmentOpt.get());
                 return ResponseEntity.ok(enrollmentDto);
@@ -100,13 +100,9 @@ public class EnrollmentController {
     
     @DeleteMapping("/{courseId}")
     @PreAuthorize("hasRole('STUDENT')")
-    public ResponseEntity<?> unenrollFromCourse(@PathVariable Long courseId, Authentication authentication) {
+    public ResponseEntity<?> unenrollFromCourse(@PathVariable Long courseId, CurrentUser currentUser) {
         try {
-            UserDetailsImpl userDetails = (UserDetailsImpl) authentication.getPrincipal();
-            User user = userService.getUserById(userDetails.getId())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-            
-            enrollmentService.unenrollUserFromCourse(courseId, user);
+            enrollmentService.unenrollUserFromCourse(courseId, currentUser.getReference());
             return ResponseEntity.ok("Successfully unenrolled from course");
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -115,15 +111,36 @@ public class EnrollmentController {
     
     @GetMapping("/course/{courseId}")
     @PreAuthorize("hasRole('INSTRUCTOR') or hasRole('ADMIN')")
-    public ResponseEntity<List<EnrollmentDto>> getCourseEnrollments(@PathVariable Long courseId) {
+    public ResponseEntity<StreamingResponseBody> getCourseEnrollments(@PathVariable Long courseId,
+                                                                      @RequestParam(required = false) String format) {
+        // Rows are written as they are read, so memory stays flat regardless of roster size
+        return StreamingJsonResponses.<EnrollmentDto>stream(objectMapper, format,
+                sink -> enrollmentService.streamCourseRoster(courseId, sink));
+    }
+    
+    @PostMapping(value = "/course/{courseId}/cohort", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('INSTRUCTOR') or hasRole('ADMIN')")
+    public ResponseEntity<?> enrollCohort(@PathVariable Long courseId, @Valid @RequestBody CohortEnrollmentDto cohortDto,
+                                          CurrentUser currentUser) {
         try {
-            List<Enrollment> enrollments = enrollmentService.getCourseEnrollments(courseId);
-            List<EnrollmentDto> enrollmentDtos = enrollments.stream()
-                    .map(EnrollmentDto::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(enrollmentDtos);
+            CohortEnrollmentResultDto result = enrollmentService.enrollCohort(courseId, cohortDto.getUserIds(),
+                    currentUser.getId(), currentUser.getRole());
+            return ResponseEntity.ok(result);
         } catch (RuntimeException e) {
-            return ResponseEntity.badRequest().body(null);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    @PostMapping(value = "/course/{courseId}/cohort", consumes = "text/csv")
+    @PreAuthorize("hasRole('INSTRUCTOR') or hasRole('ADMIN')")
+    public ResponseEntity<?> enrollCohortCsv(@PathVariable Long courseId, Reader csv, CurrentUser currentUser) {
+        try {
+            Collection<Long> userIds = readUserIds(csv, enrollmentService.getMaxCohortSize());
+            CohortEnrollmentResultDto result = enrollmentService.enrollCohort(courseId, userIds,
+                    currentUser.getId(), currentUser.getRole());
+            return ResponseEntity.ok(result);
+        } catch (IOException | RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
     
@@ -137,6 +154,36 @@ public class EnrollmentController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+    
+    // Distinct user ids from the first column, read line by line; a non-numeric first line is a header.
+    // Stops reading as soon as the cohort is too large, so an oversized upload is never buffered whole.
+    private static Collection<Long> readUserIds(Reader csv, int maxUserIds) throws IOException {
+        Set<Long> userIds = new LinkedHashSet<>();
+        BufferedReader reader = new BufferedReader(csv);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String value = line.split(",", 2)[0].replace("\"", "").trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            try {
+                userIds.add(Long.valueOf(value));
+            } catch (NumberFormatException e) {
+                if (lineNumber > 1) {
+                    throw new RuntimeException("Invalid user id on line " + lineNumber + ": " + value);
+                }
+            }
+            if (userIds.size() > maxUserIds) {
+                throw new RuntimeException("A cohort can have at most " + maxUserIds + " users");
+            }
+        }
+        if (userIds.isEmpty()) {
+            throw new RuntimeException("A cohort needs at least one user id");
+        }
+        return userIds;
+    }
 }
 
 
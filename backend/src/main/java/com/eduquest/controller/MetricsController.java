@@ -0,0 +1,83 @@
+package com.eduquest.controller;
+
+import com.eduquest.security.PasswordHashingExecutor;
+import com.eduquest.security.RateLimitFilter;
+import com.eduquest.service.AchievementOutbox;
+import com.eduquest.service.DashboardCache;
+import com.eduquest.service.DashboardQueryExecutor;
+import com.eduquest.service.EnrollmentCountBuffer;
+import com.eduquest.service.PopularCourses;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/metrics")
+@PreAuthorize("hasRole('ADMIN')")
+public class MetricsController {
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    @Autowired
+    private DashboardQueryExecutor dashboardQueryExecutor;
+
+    @Autowired
+    private PopularCourses popularCourses;
+
+    @Autowired
+    private EnrollmentCountBuffer enrollmentCountBuffer;
+
+    @Autowired
+    private AchievementOutbox achievementOutbox;
+
+    @GetMapping("/password-hashing")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingMetrics() {
+        return ResponseEntity.ok(passwordHashingExecutor.getStats());
+    }
+
+    @GetMapping("/rate-limits")
+    public ResponseEntity<Map<String, Object>> getRateLimitMetrics() {
+        return ResponseEntity.ok(rateLimitFilter.getStats());
+    }
+
+    @GetMapping("/dashboard-cache")
+    public ResponseEntity<Map<String, Object>> getDashboardCacheMetrics() {
+        return ResponseEntity.ok(dashboardCache.getStats());
+    }
+
+    @GetMapping("/dashboard-queries")
+    public ResponseEntity<Map<String, Object>> getDashboardQueryMetrics() {
+        return ResponseEntity.ok(dashboardQueryExecutor.getStats());
+    }
+
+    @GetMapping("/popular-courses")
+    public ResponseEntity<Map<String, Object>> getPopularCoursesMetrics() {
+        return ResponseEntity.ok(popularCourses.getStats());
+    }
+
+    @GetMapping("/enrollment-counts")
+    public ResponseEntity<Map<String, Object>> getEnrollmentCountMetrics() {
+        return ResponseEntity.ok(enrollmentCountBuffer.getStats());
+    }
+
+    @GetMapping("/achievement-outbox")
+    public ResponseEntity<Map<String, Object>> getAchievementOutboxMetrics() {
+        return ResponseEntity.ok(achievementOutbox.getStats());
+    }
+
+    @PostMapping("/achievement-outbox/requeue")
+    public ResponseEntity<Map<String, Object>> requeueFailedOutboxEvents() {
+        return ResponseEntity.ok(Map.of("requeued", achievementOutbox.requeueFailed()));
+    }
+}
@@ -3,14 +3,14 @@ package com.eduquest.controller;
 import com.eduquest.dto.UserResponseDto;
 import com.eduquest.entity.User;
 import com.eduquest.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -20,14 +20,13 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserResponseDto>> getAllUsers() {
-        List<User> users = userService.getAllUsers();
-        List<UserResponseDto> userResponses = users.stream()
-                .map(UserResponseDto::new)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(userResponses);
+    public ResponseEntity<StreamingResponseBody> getAllUsers(@RequestParam(required = false) String format) {
+        return StreamingJsonResponses.<UserResponseDto>stream(objectMapper, format, userService::streamAllUsers);
     }
     
     @GetMapping("/{id}")
@@ -0,0 +1,27 @@
+package com.eduquest.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class CohortEnrollmentDto {
+    
+    @NotEmpty
+    private List<Long> userIds;
+    
+    // Constructors
+    public CohortEnrollmentDto() {}
+    
+    public CohortEnrollmentDto(List<Long> userIds) {
+        this.userIds = userIds;
+    }
+    
+    // Getters and Setters
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+    
+    public void setUserIds(List<Long> userIds) {
+        this.userIds = userIds;
+    }
+}
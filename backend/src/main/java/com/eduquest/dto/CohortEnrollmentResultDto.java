@@ -0,0 +1,54 @@
+package com.eduquest.dto;
+
+public class CohortEnrollmentResultDto {
+    
+    private Long courseId;
+    // Distinct user ids in the request
+    private int requested;
+    private int enrolled;
+    // Already enrolled, not a student, or no such user
+    private int skipped;
+    
+    // Constructors
+    public CohortEnrollmentResultDto() {}
+    
+    public CohortEnrollmentResultDto(Long courseId, int requested, int enrolled) {
+        this.courseId = courseId;
+        this.requested = requested;
+        this.enrolled = enrolled;
+        this.skipped = requested - enrolled;
+    }
+    
+    // Getters and Setters
+    public Long getCourseId() {
+        return courseId;
+    }
+    
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+    
+    public int getRequested() {
+        return requested;
+    }
+    
+    public void setRequested(int requested) {
+        this.requested = requested;
+    }
+    
+    public int getEnrolled() {
+        return enrolled;
+    }
+    
+    public void setEnrolled(int enrolled) {
+        this.enrolled = enrolled;
+    }
+    
+    public int getSkipped() {
+        return skipped;
+    }
+    
+    public void setSkipped(int skipped) {
+        this.skipped = skipped;
+    }
+}
@@ -1,7 +1,6 @@
 package com.eduquest.dto;
 
 import com.eduquest.entity.Course;
-import com.eduquest.entity.User;
 
 import java.time.LocalDateTime;
 
@@ -38,6 +37,22 @@ public class CourseDto {
         this.updatedAt = course.getUpdatedAt();
     }
     
+    // List-view projection used by CourseRepository constructor expressions; omits the description
+    public CourseDto(Long id, String title, String category, Course.Level level, Long instructorId, String instructorName,
+                     Integer duration, Integer lessons, Integer studentsEnrolled, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.category = category;
+        this.level = level;
+        this.instructorId = instructorId;
+        this.instructorName = instructorName;
+        this.duration = duration;
+        this.lessons = lessons;
+        this.studentsEnrolled = studentsEnrolled;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -0,0 +1,57 @@
+package com.eduquest.dto;
+
+import com.eduquest.entity.Course;
+
+import java.util.Map;
+
+public class CourseFacetsDto {
+    
+    private Integer totalCourses;
+    private Map<String, Integer> categories;
+    private Map<Course.Level, Integer> levels;
+    private Map<String, Map<Course.Level, Integer>> categoryLevels;
+    
+    // Constructors
+    public CourseFacetsDto() {}
+    
+    public CourseFacetsDto(Integer totalCourses, Map<String, Integer> categories, Map<Course.Level, Integer> levels,
+                           Map<String, Map<Course.Level, Integer>> categoryLevels) {
+        this.totalCourses = totalCourses;
+        this.categories = categories;
+        this.levels = levels;
+        this.categoryLevels = categoryLevels;
+    }
+    
+    // Getters and Setters
+    public Integer getTotalCourses() {
+        return totalCourses;
+    }
+    
+    public void setTotalCourses(Integer totalCourses) {
+        this.totalCourses = totalCourses;
+    }
+    
+    public Map<String, Integer> getCategories() {
+        return categories;
+    }
+    
+    public void setCategories(Map<String, Integer> categories) {
+        this.categories = categories;
+    }
+    
+    public Map<Course.Level, Integer> getLevels() {
+        return levels;
+    }
+    
+    public void setLevels(Map<Course.Level, Integer> levels) {
+        this.levels = levels;
+    }
+    
+    public Map<String, Map<Course.Level, Integer>> getCategoryLevels() {
+        return categoryLevels;
+    }
+    
+    public void setCategoryLevels(Map<String, Map<Course.Level, Integer>> categoryLevels) {
+        this.categoryLevels = categoryLevels;
+    }
+}
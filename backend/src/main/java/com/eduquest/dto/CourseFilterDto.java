@@ -0,0 +1,95 @@
+package com.eduquest.dto;
+
+import com.eduquest.entity.Course;
+
+import java.util.List;
+
+/**
+ * Course listing filters, bound from query parameters. List filters match any of
+ * their values, ranges are inclusive, and a course must pass every filter given.
+ */
+public class CourseFilterDto {
+    
+    private List<String> category;
+    private List<Course.Level> level;
+    private List<Long> instructorId;
+    private Integer minDuration;
+    private Integer maxDuration;
+    private Integer minLessons;
+    private Integer maxLessons;
+    private Integer minEnrolled;
+    
+    // Constructors
+    public CourseFilterDto() {}
+    
+    public boolean hasCriteria() {
+        return category != null || level != null || instructorId != null
+                || minDuration != null || maxDuration != null
+                || minLessons != null || maxLessons != null || minEnrolled != null;
+    }
+    
+    // Getters and Setters
+    public List<String> getCategory() {
+        return category;
+    }
+    
+    public void setCategory(List<String> category) {
+        this.category = category;
+    }
+    
+    public List<Course.Level> getLevel() {
+        return level;
+    }
+    
+    public void setLevel(List<Course.Level> level) {
+        this.level = level;
+    }
+    
+    public List<Long> getInstructorId() {
+        return instructorId;
+    }
+    
+    public void setInstructorId(List<Long> instructorId) {
+        this.instructorId = instructorId;
+    }
+    
+    public Integer getMinDuration() {
+        return minDuration;
+    }
+    
+    public void setMinDuration(Integer minDuration) {
+        this.minDuration = minDuration;
+    }
+    
+    public Integer getMaxDuration() {
+        return maxDuration;
+    }
+    
+    public void setMaxDuration(Integer maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+    
+    public Integer getMinLessons() {
+        return minLessons;
+    }
+    
+    public void setMinLessons(Integer minLessons) {
+        this.minLessons = minLessons;
+    }
+    
+    public Integer getMaxLessons() {
+        return maxLessons;
+    }
+    
+    public void setMaxLessons(Integer maxLessons) {
+        this.maxLessons = maxLessons;
+    }
+    
+    public Integer getMinEnrolled() {
+        return minEnrolled;
+    }
+    
+    public void setMinEnrolled(Integer minEnrolled) {
+        this.minEnrolled = minEnrolled;
+    }
+}
@@ -0,0 +1,34 @@
+package com.eduquest.dto;
+
+public class CourseSearchResultDto extends CourseDto {
+    
+    private Double score;
+    
+    // Constructors
+    public CourseSearchResultDto() {}
+    
+    public CourseSearchResultDto(CourseDto course, Double score) {
+        setId(course.getId());
+        setTitle(course.getTitle());
+        setDescription(course.getDescription());
+        setCategory(course.getCategory());
+        setLevel(course.getLevel());
+        setInstructorId(course.getInstructorId());
+        setInstructorName(course.getInstructorName());
+        setDuration(course.getDuration());
+        setLessons(course.getLessons());
+        setStudentsEnrolled(course.getStudentsEnrolled());
+        setCreatedAt(course.getCreatedAt());
+        setUpdatedAt(course.getUpdatedAt());
+        this.score = score;
+    }
+    
+    // Getters and Setters
+    public Double getScore() {
+        return score;
+    }
+    
+    public void setScore(Double score) {
+        this.score = score;
+    }
+}
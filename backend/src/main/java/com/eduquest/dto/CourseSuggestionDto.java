@@ -0,0 +1,57 @@
+package com.eduquest.dto;
+
+public class CourseSuggestionDto {
+    
+    private String text;
+    private SuggestionType type;
+    private Long courseId;
+    private Integer studentsEnrolled;
+    
+    // Constructors
+    public CourseSuggestionDto() {}
+    
+    public CourseSuggestionDto(String text, SuggestionType type, Long courseId, Integer studentsEnrolled) {
+        this.text = text;
+        this.type = type;
+        this.courseId = courseId;
+        this.studentsEnrolled = studentsEnrolled;
+    }
+    
+    // Getters and Setters
+    public String getText() {
+        return text;
+    }
+    
+    public void setText(String text) {
+        this.text = text;
+    }
+    
+    public SuggestionType getType() {
+        return type;
+    }
+    
+    public void setType(SuggestionType type) {
+        this.type = type;
+    }
+    
+    public Long getCourseId() {
+        return courseId;
+    }
+    
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+    
+    public Integer getStudentsEnrolled() {
+        return studentsEnrolled;
+    }
+    
+    public void setStudentsEnrolled(Integer studentsEnrolled) {
+        this.studentsEnrolled = studentsEnrolled;
+    }
+    
+    // Course suggestions link to a course; category suggestions carry the category's total enrollment
+    public enum SuggestionType {
+        COURSE, CATEGORY
+    }
+}
@@ -0,0 +1,57 @@
+package com.eduquest.dto;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class CursorPageDto<T> {
+    
+    private List<T> items;
+    private String nextCursor;
+    private Integer limit;
+    
+    // Constructors
+    public CursorPageDto() {}
+    
+    public CursorPageDto(List<T> items, String nextCursor, Integer limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+    
+    public <R> CursorPageDto<R> map(Function<? super T, ? extends R> mapper) {
+        List<R> mapped = items.stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+        return new CursorPageDto<>(mapped, nextCursor, limit);
+    }
+    
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+    
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+    
+    public String getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+    
+    public Integer getLimit() {
+        return limit;
+    }
+    
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+    
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
@@ -31,6 +31,20 @@ public class EnrollmentDto {
         this.updatedAt = enrollment.getUpdatedAt();
     }
     
+    // Projection used by EnrollmentRepository constructor expressions
+    public EnrollmentDto(Long id, Long userId, String userName, Long courseId, String courseTitle, Integer progress,
+                         Enrollment.CompletionStatus completionStatus, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.userName = userName;
+        this.courseId = courseId;
+        this.courseTitle = courseTitle;
+        this.progress = progress;
+        this.completionStatus = completionStatus;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -0,0 +1,88 @@
+package com.eduquest.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress reports buffered by a client while offline, replayed in one request.
+ */
+public class ProgressBatchDto {
+    
+    public static final int MAX_ENTRIES = 500;
+    
+    @NotEmpty
+    @Size(max = MAX_ENTRIES)
+    @Valid
+    private List<Entry> entries;
+    
+    // Constructors
+    public ProgressBatchDto() {}
+    
+    public ProgressBatchDto(List<Entry> entries) {
+        this.entries = entries;
+    }
+    
+    // Getters and Setters
+    public List<Entry> getEntries() {
+        return entries;
+    }
+    
+    public void setEntries(List<Entry> entries) {
+        this.entries = entries;
+    }
+    
+    public static class Entry {
+        
+        @NotNull
+        private Long courseId;
+        
+        @NotNull
+        @Min(0)
+        @Max(100)
+        private Integer progress;
+        
+        // When the client recorded the progress; defaults to the time of the request
+        private LocalDateTime clientTimestamp;
+        
+        // Constructors
+        public Entry() {}
+        
+        public Entry(Long courseId, Integer progress, LocalDateTime clientTimestamp) {
+            this.courseId = courseId;
+            this.progress = progress;
+            this.clientTimestamp = clientTimestamp;
+        }
+        
+        // Getters and Setters
+        public Long getCourseId() {
+            return courseId;
+        }
+        
+        public void setCourseId(Long courseId) {
+            this.courseId = courseId;
+        }
+        
+        public Integer getProgress() {
+            return progress;
+        }
+        
+        public void setProgress(Integer progress) {
+            this.progress = progress;
+        }
+        
+        public LocalDateTime getClientTimestamp() {
+            return clientTimestamp;
+        }
+        
+        public void setClientTimestamp(LocalDateTime clientTimestamp) {
+            this.clientTimestamp = clientTimestamp;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.eduquest.dto;
+
+import com.eduquest.entity.Enrollment;
+
+/**
+ * Outcome of a progress report: one entry of a progress batch, in request order,
+ * or a single progress update.
+ */
+public class ProgressResultDto {
+    
+    public enum Outcome {
+        // The entry raised the stored progress
+        APPLIED,
+        // A higher (or equal, earlier) entry for the same course in this batch was applied instead
+        SUPERSEDED,
+        // The stored progress was already at least this high
+        STALE,
+        NOT_ENROLLED
+    }
+    
+    private Long courseId;
+    private Integer progress;
+    private Outcome outcome;
+    private Integer currentProgress;
+    private Enrollment.CompletionStatus completionStatus;
+    
+    // Constructors
+    public ProgressResultDto() {}
+    
+    public ProgressResultDto(Long courseId, Integer progress, Outcome outcome, Enrollment enrollment) {
+        this.courseId = courseId;
+        this.progress = progress;
+        this.outcome = outcome;
+        if (enrollment != null) {
+            this.currentProgress = enrollment.getProgress();
+            this.completionStatus = enrollment.getCompletionStatus();
+        }
+    }
+    
+    public ProgressResultDto(Long courseId, Integer progress, Outcome outcome, Integer currentProgress,
+                             Enrollment.CompletionStatus completionStatus) {
+        this.courseId = courseId;
+        this.progress = progress;
+        this.outcome = outcome;
+        this.currentProgress = currentProgress;
+        this.completionStatus = completionStatus;
+    }
+    
+    // Getters and Setters
+    public Long getCourseId() {
+        return courseId;
+    }
+    
+    public void setCourseId(Long courseId) {
+        this.courseId = courseId;
+    }
+    
+    public Integer getProgress() {
+        return progress;
+    }
+    
+    public void setProgress(Integer progress) {
+        this.progress = progress;
+    }
+    
+    public Outcome getOutcome() {
+        return outcome;
+    }
+    
+    public void setOutcome(Outcome outcome) {
+        this.outcome = outcome;
+    }
+    
+    public Integer getCurrentProgress() {
+        return currentProgress;
+    }
+    
+    public void setCurrentProgress(Integer currentProgress) {
+        this.currentProgress = currentProgress;
+    }
+    
+    public Enrollment.CompletionStatus getCompletionStatus() {
+        return completionStatus;
+    }
+    
+    public void setCompletionStatus(Enrollment.CompletionStatus completionStatus) {
+        this.completionStatus = completionStatus;
+    }
+}
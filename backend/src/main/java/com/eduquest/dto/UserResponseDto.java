@@ -23,6 +23,15 @@ public class UserResponseDto {
         this.createdAt = user.getCreatedAt();
     }
     
+    // Projection used by UserRepository constructor expressions
+    public UserResponseDto(Long id, String name, String email, User.Role role, LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.role = role;
+        this.createdAt = createdAt;
+    }
+    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -10,7 +10,10 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "achievements")
+// Each type is earned once per user; lets concurrent awards of the same type skip instead of duplicating
+@Table(name = "achievements", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"user_id", "type"})
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Achievement {
     
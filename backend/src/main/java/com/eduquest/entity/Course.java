@@ -14,7 +14,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "courses")
+@Table(name = "courses", indexes = {
+    @Index(name = "idx_courses_students_enrolled_id", columnList = "students_enrolled, id"),
+    @Index(name = "idx_courses_created_at_id", columnList = "created_at, id"),
+    @Index(name = "idx_courses_category_id", columnList = "category, id"),
+    @Index(name = "idx_courses_level_id", columnList = "level, id")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Course {
     
@@ -13,6 +13,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "enrollments", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "course_id"})
+}, indexes = {
+    @Index(name = "idx_enrollments_course_id", columnList = "course_id")
 })
 @EntityListeners(AuditingEntityListener.class)
 public class Enrollment {
@@ -90,13 +92,7 @@ public class Enrollment {
         this.progress = progress;
         // Auto-update completion status based on progress
         if (progress != null) {
-            if (progress >= 100) {
-                this.completionStatus = CompletionStatus.COMPLETED;
-            } else if (progress > 0) {
-                this.completionStatus = CompletionStatus.IN_PROGRESS;
-            } else {
-                this.completionStatus = CompletionStatus.NOT_STARTED;
-            }
+            this.completionStatus = statusFor(progress);
         }
     }
     
@@ -129,6 +125,15 @@ public class Enrollment {
         setProgress(newProgress);
     }
     
+    public static CompletionStatus statusFor(int progress) {
+        if (progress >= 100) {
+            return CompletionStatus.COMPLETED;
+        } else if (progress > 0) {
+            return CompletionStatus.IN_PROGRESS;
+        }
+        return CompletionStatus.NOT_STARTED;
+    }
+    
     // Enum for Completion Status
     public enum CompletionStatus {
         NOT_STARTED, IN_PROGRESS, COMPLETED
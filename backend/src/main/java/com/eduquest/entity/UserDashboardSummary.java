@@ -0,0 +1,133 @@
+package com.eduquest.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-user dashboard counters, kept in step with enrollments and achievements by
+ * DashboardSummaryService in the same transaction as the change itself.
+ */
+@Entity
+@Table(name = "user_dashboard_summary")
+public class UserDashboardSummary {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "enrolled_courses", nullable = false)
+    private Integer enrolledCourses = 0;
+    
+    @Column(name = "completed_courses", nullable = false)
+    private Integer completedCourses = 0;
+    
+    @Column(name = "in_progress_courses", nullable = false)
+    private Integer inProgressCourses = 0;
+    
+    // Sum of the durations of completed courses
+    @Column(name = "total_hours", nullable = false)
+    private Integer totalHours = 0;
+    
+    @Column(name = "achievement_count", nullable = false)
+    private Integer achievementCount = 0;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public UserDashboardSummary() {}
+    
+    public UserDashboardSummary(Long userId) {
+        this.userId = userId;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+    
+    public Integer getEnrolledCourses() {
+        return enrolledCourses;
+    }
+    
+    public void setEnrolledCourses(Integer enrolledCourses) {
+        this.enrolledCourses = enrolledCourses;
+    }
+    
+    public Integer getCompletedCourses() {
+        return completedCourses;
+    }
+    
+    public void setCompletedCourses(Integer completedCourses) {
+        this.completedCourses = completedCourses;
+    }
+    
+    public Integer getInProgressCourses() {
+        return inProgressCourses;
+    }
+    
+    public void setInProgressCourses(Integer inProgressCourses) {
+        this.inProgressCourses = inProgressCourses;
+    }
+    
+    public Integer getTotalHours() {
+        return totalHours;
+    }
+    
+    public void setTotalHours(Integer totalHours) {
+        this.totalHours = totalHours;
+    }
+    
+    public Integer getAchievementCount() {
+        return achievementCount;
+    }
+    
+    public void setAchievementCount(Integer achievementCount) {
+        this.achievementCount = achievementCount;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    // Helper methods
+    public void addEnrollment(Enrollment.CompletionStatus status, int delta) {
+        enrolledCourses += delta;
+        if (status == Enrollment.CompletionStatus.COMPLETED) {
+            completedCourses += delta;
+        } else {
+            // NOT_STARTED rows predate progress becoming monotonic; new enrollments start IN_PROGRESS at 0
+            inProgressCourses += delta;
+        }
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public void moveEnrollment(Enrollment.CompletionStatus from, Enrollment.CompletionStatus to) {
+        addEnrollment(from, -1);
+        addEnrollment(to, 1);
+    }
+    
+    public void addHours(int delta) {
+        totalHours += delta;
+        updatedAt = LocalDateTime.now();
+    }
+    
+    public void addAchievement() {
+        addAchievements(1);
+    }
+    
+    public void addAchievements(int count) {
+        achievementCount += count;
+        updatedAt = LocalDateTime.now();
+    }
+}
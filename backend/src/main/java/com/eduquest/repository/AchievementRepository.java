@@ -2,6 +2,7 @@ package com.eduquest.repository;
 
 import com.eduquest.entity.Achievement;
 import com.eduquest.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -23,12 +24,20 @@ public interface AchievementRepository extends JpaRepository<Achievement, Long>
     @Query("SELECT a FROM Achievement a WHERE a.user.id = :userId ORDER BY a.earnedDate DESC")
     List<Achievement> findByUserIdOrderByEarnedDateDesc(@Param("userId") Long userId);
     
+    // User fetched with the page so the rows can be mapped to DTOs outside the transaction
+    @Query("SELECT a FROM Achievement a JOIN FETCH a.user WHERE a.user.id = :userId ORDER BY a.earnedDate DESC, a.id DESC")
+    List<Achievement> findByUserIdOrderByEarnedDateDesc(@Param("userId") Long userId, Pageable pageable);
+    
     @Query("SELECT a FROM Achievement a WHERE a.user.id = :userId AND a.type = :type")
     List<Achievement> findByUserIdAndType(@Param("userId") Long userId, @Param("type") Achievement.AchievementType type);
     
     @Query("SELECT COUNT(a) FROM Achievement a WHERE a.user.id = :userId")
     Long countByUserId(@Param("userId") Long userId);
     
+    // Everything the user has earned, as types; what the achievement rules skip
+    @Query("SELECT DISTINCT a.type FROM Achievement a WHERE a.user.id = :userId")
+    List<Achievement.AchievementType> findTypesByUserId(@Param("userId") Long userId);
+    
     @Query("SELECT COUNT(a) FROM Achievement a WHERE a.user.id = :userId AND a.type = :type")
     Long countByUserIdAndType(@Param("userId") Long userId, @Param("type") Achievement.AchievementType type);
     
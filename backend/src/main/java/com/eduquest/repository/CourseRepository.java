@@ -1,12 +1,17 @@
 package com.eduquest.repository;
 
+import com.eduquest.dto.CourseDto;
 import com.eduquest.entity.Course;
 import com.eduquest.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,12 +40,64 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     
     @Query("SELECT c FROM Course c WHERE c.title LIKE %:searchTerm% OR c.description LIKE %:searchTerm%")
     List<Course> findByTitleOrDescriptionContaining(@Param("searchTerm") String searchTerm);
+    
+    // List views read only the summary columns (no TEXT description) and the instructor
+    // name in the same statement, so mapping to CourseDto never touches a lazy association.
+    String SUMMARY = "SELECT new com.eduquest.dto.CourseDto(c.id, c.title, c.category, c.level, i.id, i.name, " +
+                     "c.duration, c.lessons, c.studentsEnrolled, c.createdAt, c.updatedAt) " +
+                     "FROM Course c JOIN c.instructor i ";
+    
+    // Keyset pagination: each query returns the rows strictly after the cursor; pass a
+    // Pageable of size limit + 1 to detect whether another page exists.
+    
+    @Query(SUMMARY + "ORDER BY c.id ASC")
+    List<CourseDto> findFirstPage(Pageable pageable);
+    
+    @Query(SUMMARY + "WHERE c.id > :afterId ORDER BY c.id ASC")
+    List<CourseDto> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(SUMMARY + "WHERE c.category = :category ORDER BY c.id ASC")
+    List<CourseDto> findFirstPageByCategory(@Param("category") String category, Pageable pageable);
+    
+    @Query(SUMMARY + "WHERE c.category = :category AND c.id > :afterId ORDER BY c.id ASC")
+    List<CourseDto> findPageByCategoryAfter(@Param("category") String category, @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(SUMMARY + "WHERE c.level = :level ORDER BY c.id ASC")
+    List<CourseDto> findFirstPageByLevel(@Param("level") Course.Level level, Pageable pageable);
+    
+    @Query(SUMMARY + "WHERE c.level = :level AND c.id > :afterId ORDER BY c.id ASC")
+    List<CourseDto> findPageByLevelAfter(@Param("level") Course.Level level, @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(SUMMARY + "ORDER BY c.studentsEnrolled DESC, c.id DESC")
+    List<CourseDto> findFirstPopularPage(Pageable pageable);
+    
+    @Query(SUMMARY + "WHERE c.studentsEnrolled < :studentsEnrolled " +
+           "OR (c.studentsEnrolled = :studentsEnrolled AND c.id < :afterId) " +
+           "ORDER BY c.studentsEnrolled DESC, c.id DESC")
+    List<CourseDto> findPopularPageAfter(@Param("studentsEnrolled") Integer studentsEnrolled, @Param("afterId") Long afterId, Pageable pageable);
+    
+    // Single-statement counter update; never goes below zero. Returns 0 if the course is missing or already at zero.
+    @Modifying
+    @Query("UPDATE Course c SET c.studentsEnrolled = COALESCE(c.studentsEnrolled, 0) + :delta " +
+           "WHERE c.id = :id AND COALESCE(c.studentsEnrolled, 0) + :delta >= 0")
+    int addStudentsEnrolled(@Param("id") Long id, @Param("delta") int delta);
+    
+    // (id, studentsEnrolled) for every course; PopularCourses reloads its counts from this
+    @Query("SELECT c.id, c.studentsEnrolled FROM Course c")
+    List<Object[]> findEnrollmentCounts();
+    
+    @Query(SUMMARY + "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CourseDto> findFirstRecentPage(Pageable pageable);
+    
+    @Query(SUMMARY + "WHERE c.createdAt < :createdAt " +
+           "OR (c.createdAt = :createdAt AND c.id < :afterId) " +
+           "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CourseDto> findRecentPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(SUMMARY + "WHERE c.id IN :ids")
+    List<CourseDto> findSummariesByIds(@Param("ids") Collection<Long> ids);
+    
+    // Full rows with the instructor, used to seed the in-memory course indexes
+    @Query("SELECT c FROM Course c JOIN FETCH c.instructor")
+    List<Course> findAllWithInstructor();
 }
-
-
-
-
-
-
-
-
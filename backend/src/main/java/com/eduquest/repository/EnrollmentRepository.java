@@ -1,15 +1,23 @@
 package com.eduquest.repository;
 
+import com.eduquest.dto.EnrollmentDto;
 import com.eduquest.entity.Course;
 import com.eduquest.entity.Enrollment;
 import com.eduquest.entity.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
@@ -22,15 +30,64 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     
     boolean existsByUserAndCourse(User user, Course course);
     
-    @Query("SELECT e FROM Enrollment e WHERE e.user.id = :userId")
+    // Fetch-joined so callers can read the user and course without a lookup per row
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.user JOIN FETCH e.course WHERE e.user.id = :userId")
     List<Enrollment> findByUserId(@Param("userId") Long userId);
     
-    @Query("SELECT e FROM Enrollment e WHERE e.course.id = :courseId")
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.user JOIN FETCH e.course WHERE e.course.id = :courseId")
     List<Enrollment> findByCourseId(@Param("courseId") Long courseId);
     
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.user JOIN FETCH e.course WHERE e.user.id = :userId AND e.course.id = :courseId")
+    Optional<Enrollment> findWithUserAndCourse(@Param("userId") Long userId, @Param("courseId") Long courseId);
+    
+    // Leans on the (user_id, course_id) unique constraint: returns 1 if the row was inserted, 0 if it already existed
+    // or if the user or the course does not exist
+    @Modifying
+    @Query(value = "INSERT INTO enrollments (user_id, course_id, progress, completion_status, created_at, updated_at) " +
+                   "SELECT u.id, c.id, 0, 'IN_PROGRESS', :now, :now FROM users u, courses c " +
+                   "WHERE u.id = :userId AND c.id = :courseId ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("courseId") Long courseId, @Param("now") LocalDateTime now);
+    
+    // Students among the given ids who are not enrolled in the course yet
+    @Query("SELECT u.id FROM User u WHERE u.id IN :userIds AND u.role = :role " +
+           "AND NOT EXISTS (SELECT e.id FROM Enrollment e WHERE e.user = u AND e.course.id = :courseId)")
+    List<Long> findUnenrolledIds(@Param("courseId") Long courseId, @Param("userIds") Collection<Long> userIds,
+                                 @Param("role") User.Role role);
+    
+    // Max-wins progress write: only moves forward, and only from one of the given statuses. Returns 1 if the row changed.
+    @Modifying
+    @Query("UPDATE Enrollment e SET e.progress = :progress, e.completionStatus = :status, e.updatedAt = :now " +
+           "WHERE e.user.id = :userId AND e.course.id = :courseId AND e.progress < :progress AND e.completionStatus IN :from")
+    int advanceProgress(@Param("userId") Long userId, @Param("courseId") Long courseId, @Param("progress") int progress,
+                        @Param("status") Enrollment.CompletionStatus status,
+                        @Param("from") Collection<Enrollment.CompletionStatus> from, @Param("now") LocalDateTime now);
+    
+    // Read-only so the batch path can mirror its JDBC writes onto these without Hibernate flushing them again
+    @Query("SELECT e FROM Enrollment e JOIN FETCH e.course WHERE e.user.id = :userId AND e.course.id IN :courseIds")
+    @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    List<Enrollment> findForProgressBatch(@Param("userId") Long userId, @Param("courseIds") Collection<Long> courseIds);
+    
+    String DTO = "SELECT new com.eduquest.dto.EnrollmentDto(e.id, u.id, u.name, c.id, c.title, e.progress, " +
+                 "e.completionStatus, e.createdAt, e.updatedAt) " +
+                 "FROM Enrollment e JOIN e.user u JOIN e.course c ";
+    
+    // Streamed with a bounded JDBC fetch size; must be consumed inside a transaction
+    @Query(DTO + "WHERE c.id = :courseId ORDER BY e.id ASC")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    Stream<EnrollmentDto> streamRosterByCourseId(@Param("courseId") Long courseId);
+    
+    @Query(DTO + "WHERE u.id = :userId ORDER BY e.createdAt DESC")
+    List<EnrollmentDto> findDtosByUserId(@Param("userId") Long userId);
+    
+    @Query(DTO + "WHERE u.id = :userId ORDER BY e.createdAt DESC, e.id DESC")
+    List<EnrollmentDto> findRecentDtosByUserId(@Param("userId") Long userId, Pageable pageable);
+    
     @Query("SELECT e FROM Enrollment e WHERE e.user.id = :userId AND e.completionStatus = :status")
     List<Enrollment> findByUserIdAndCompletionStatus(@Param("userId") Long userId, @Param("status") Enrollment.CompletionStatus status);
     
+    @Query("SELECT COUNT(e) FROM Enrollment e WHERE e.user.id = :userId AND e.completionStatus = :status")
+    Long countByUserIdAndCompletionStatus(@Param("userId") Long userId, @Param("status") Enrollment.CompletionStatus status);
+    
     @Query("SELECT COUNT(e) FROM Enrollment e WHERE e.course.id = :courseId")
     Long countByCourseId(@Param("courseId") Long courseId);
     
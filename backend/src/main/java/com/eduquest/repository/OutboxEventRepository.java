@@ -0,0 +1,55 @@
+package com.eduquest.repository;
+
+import com.eduquest.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    // Oldest first, so each user's events are applied in the order they were written; users with an
+    // event still backing off are skipped whole, so their later events wait behind it
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = :status AND NOT EXISTS (" +
+           "SELECT b FROM OutboxEvent b WHERE b.userId = e.userId AND b.status = :status AND b.nextAttemptAt > :now) " +
+           "ORDER BY e.id ASC")
+    List<OutboxEvent> findDue(@Param("status") OutboxEvent.Status status, @Param("now") LocalDateTime now, Pageable pageable);
+    
+    long countByStatus(OutboxEvent.Status status);
+    
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.status = :status")
+    LocalDateTime findOldestCreatedAt(@Param("status") OutboxEvent.Status status);
+    
+    // An ACTIVITY event now, unless the user's last activity is already today and it would change nothing
+    @Modifying
+    @Query(value = "INSERT INTO outbox_events (user_id, type, occurred_at, status, attempts, created_at) " +
+                   "SELECT u.id, 'ACTIVITY', :now, 'PENDING', 0, :now FROM users u " +
+                   "WHERE u.id = :userId AND (u.last_activity_date IS NULL OR u.last_activity_date < :today)", nativeQuery = true)
+    int insertActivityUnlessCounted(@Param("userId") Long userId, @Param("now") LocalDateTime now,
+                                    @Param("today") LocalDateTime today);
+    
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :status, e.processedAt = :now WHERE e.id IN :ids")
+    int markDone(@Param("ids") Collection<Long> ids, @Param("status") OutboxEvent.Status status, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error, e.nextAttemptAt = :nextAttemptAt " +
+           "WHERE e.id = :id")
+    int recordFailure(@Param("id") Long id, @Param("error") String error, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+    
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :to, e.attempts = 0, e.nextAttemptAt = NULL, e.processedAt = NULL " +
+           "WHERE e.status = :from")
+    int requeue(@Param("from") OutboxEvent.Status from, @Param("to") OutboxEvent.Status to);
+    
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = :status AND e.processedAt < :before")
+    int deleteDoneBefore(@Param("status") OutboxEvent.Status status, @Param("before") LocalDateTime before);
+}
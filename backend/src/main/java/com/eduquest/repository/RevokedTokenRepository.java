@@ -0,0 +1,29 @@
+package com.eduquest.repository;
+
+import com.eduquest.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    
+    @Query("SELECT r FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<RevokedToken> findActive(@Param("now") LocalDateTime now);
+    
+    // Concurrent revocations of the same token both succeed; the jti is unique
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (jti, user_id, revoked_at, expires_at) " +
+                   "VALUES (:jti, :userId, :revokedAt, :expiresAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("jti") String jti, @Param("userId") Long userId,
+                       @Param("revokedAt") LocalDateTime revokedAt, @Param("expiresAt") LocalDateTime expiresAt);
+    
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,54 @@
+package com.eduquest.repository;
+
+import com.eduquest.entity.Enrollment;
+import com.eduquest.entity.UserDashboardSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserDashboardSummaryRepository extends JpaRepository<UserDashboardSummary, Long> {
+    
+    // Row lock so concurrent requests for the same user apply their deltas one at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserDashboardSummary s WHERE s.userId = :userId")
+    Optional<UserDashboardSummary> findForUpdate(@Param("userId") Long userId);
+    
+    // Creates a missing row without racing a concurrent first write; returns 1 if this call inserted it
+    @Modifying
+    @Query(value = "INSERT INTO user_dashboard_summary (user_id, enrolled_courses, completed_courses, in_progress_courses, " +
+                   "total_hours, achievement_count, updated_at) " +
+                   "VALUES (:userId, :enrolled, :completed, :inProgress, :totalHours, :achievements, :now) " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId, @Param("enrolled") int enrolled, @Param("completed") int completed,
+                       @Param("inProgress") int inProgress, @Param("totalHours") int totalHours,
+                       @Param("achievements") int achievements, @Param("now") LocalDateTime now);
+    
+    // [enrolled, completed, in progress, completed hours] for a full rebuild
+    @Query("SELECT COUNT(e), " +
+           "COALESCE(SUM(CASE WHEN e.completionStatus = :completed THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN e.completionStatus <> :completed THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN e.completionStatus = :completed THEN COALESCE(c.duration, 0) ELSE 0 END), 0) " +
+           "FROM Enrollment e JOIN e.course c WHERE e.user.id = :userId")
+    List<Object[]> aggregateEnrollments(@Param("userId") Long userId,
+                                        @Param("completed") Enrollment.CompletionStatus completed);
+    
+    // Summaries are rebuilt on next use after the rows they were derived from change in bulk
+    @Modifying
+    @Query("DELETE FROM UserDashboardSummary s WHERE s.userId IN " +
+           "(SELECT e.user.id FROM Enrollment e WHERE e.course.id = :courseId)")
+    int deleteForCourse(@Param("courseId") Long courseId);
+    
+    @Modifying
+    @Query("DELETE FROM UserDashboardSummary s WHERE s.userId IN :userIds")
+    int deleteForUsers(@Param("userIds") Collection<Long> userIds);
+}
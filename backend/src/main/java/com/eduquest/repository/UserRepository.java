@@ -1,10 +1,20 @@
 package com.eduquest.repository;
 
+import com.eduquest.dto.UserResponseDto;
 import com.eduquest.entity.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -12,4 +22,33 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     
     Boolean existsByEmail(String email);
+    
+    // Streamed with a bounded JDBC fetch size; must be consumed inside a transaction
+    @Query("SELECT new com.eduquest.dto.UserResponseDto(u.id, u.name, u.email, u.role, u.createdAt) FROM User u ORDER BY u.id ASC")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    Stream<UserResponseDto> streamAllAsDto();
+    
+    // Activity now for many users in one statement; same day rules as AchievementService.updateUserStreak
+    @Modifying
+    @Query("UPDATE User u SET u.currentStreak = CASE " +
+           "WHEN u.lastActivityDate IS NULL THEN 1 " +
+           "WHEN u.lastActivityDate >= :yesterday THEN COALESCE(u.currentStreak, 0) + 1 " +
+           "WHEN u.lastActivityDate < :twoDaysAgo THEN 1 " +
+           "ELSE u.currentStreak END, u.lastActivityDate = :now " +
+           "WHERE u.id IN :userIds AND (u.lastActivityDate IS NULL OR u.lastActivityDate < :today)")
+    int recordActivity(@Param("userIds") Collection<Long> userIds, @Param("now") LocalDateTime now,
+                       @Param("today") LocalDateTime today, @Param("yesterday") LocalDateTime yesterday,
+                       @Param("twoDaysAgo") LocalDateTime twoDaysAgo);
+    
+    // Writes only the streak columns, and only if the last activity is still the one the new streak was computed from
+    @Modifying
+    @Query("UPDATE User u SET u.currentStreak = :streak, u.lastActivityDate = :lastActivity " +
+           "WHERE u.id = :userId AND (u.lastActivityDate = :previous OR (u.lastActivityDate IS NULL AND :previous IS NULL))")
+    int updateStreak(@Param("userId") Long userId, @Param("previous") LocalDateTime previous,
+                     @Param("streak") Integer streak, @Param("lastActivity") LocalDateTime lastActivity);
+    
+    @Query("SELECT u.currentStreak, u.lastActivityDate FROM User u WHERE u.id = :userId")
+    List<Object[]> findStreakById(@Param("userId") Long userId);
+    
+    List<User> findByIdInAndCurrentStreakIn(Collection<Long> ids, Collection<Integer> streaks);
 }
@@ -0,0 +1,59 @@
+package com.eduquest.security;
+
+import com.eduquest.entity.User;
+import com.eduquest.service.UserService;
+
+/**
+ * The authenticated caller for the current request. Id, name, email and role come
+ * straight from the JWT principal; the {@link User} entity is only loaded the
+ * first time {@link #getUser()} is called and is then reused for the rest of the
+ * request.
+ */
+public class CurrentUser {
+    
+    private final UserDetailsImpl principal;
+    private final UserService userService;
+    private User user;
+    
+    public CurrentUser(UserDetailsImpl principal, UserService userService) {
+        this.principal = principal;
+        this.userService = userService;
+    }
+    
+    public Long getId() {
+        return principal.getId();
+    }
+    
+    public String getName() {
+        return principal.getName();
+    }
+    
+    public String getEmail() {
+        return principal.getEmail();
+    }
+    
+    public User.Role getRole() {
+        String authority = principal.getAuthorities().iterator().next().getAuthority();
+        return User.Role.valueOf(authority.substring("ROLE_".length()));
+    }
+    
+    /**
+     * Loads the user entity, at most once per request.
+     */
+    public User getUser() {
+        if (user == null) {
+            user = userService.getUserById(principal.getId())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+        }
+        return user;
+    }
+    
+    /**
+     * Returns the loaded entity if there is one, otherwise an uninitialized
+     * reference. Enough for binding query parameters and associations without
+     * issuing a SELECT.
+     */
+    public User getReference() {
+        return user != null ? user : userService.getUserReference(principal.getId());
+    }
+}
@@ -2,78 +2,170 @@ package com.eduquest.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.util.Collections;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
     
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_NAME = "name";
+    static final String CLAIM_ROLE = "role";
+    // "iat" only has second precision; revoke-all cutoffs need the exact instant
+    static final String CLAIM_ISSUED_AT_MS = "iat_ms";
+    
     @Value("${jwt.secret}")
     private String jwtSecret;
     
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
     
+    @Value("${jwt.verified-cache-size:10000}")
+    private int verifiedCacheSize;
+    
+    // Key, parser and cache are immutable/thread-safe, so they are built once and shared
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private VerifiedTokenCache verifiedTokenCache;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokenCache = new VerifiedTokenCache(verifiedCacheSize);
+    }
+    
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
     
     public String generateJwtToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
         
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .setSubject((userPrincipal.getUsername()))
-                .setIssuedAt(new Date())
+                .setId(UUID.randomUUID().toString());
+        
+        // Embed the principal so AuthTokenFilter can authenticate without a DB lookup
+        if (userPrincipal instanceof UserDetailsImpl) {
+            UserDetailsImpl details = (UserDetailsImpl) userPrincipal;
+            builder.claim(CLAIM_USER_ID, details.getId())
+                    .claim(CLAIM_NAME, details.getName());
+        }
+        if (!userPrincipal.getAuthorities().isEmpty()) {
+            builder.claim(CLAIM_ROLE, userPrincipal.getAuthorities().iterator().next().getAuthority());
+        }
+        
+        Date issuedAt = new Date();
+        return builder
+                .claim(CLAIM_ISSUED_AT_MS, issuedAt.getTime())
+                .setIssuedAt(issuedAt)
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS512)
                 .compact();
     }
     
     public String generateTokenFromUsername(String username) {
+        Date issuedAt = new Date();
         return Jwts.builder()
                 .setSubject(username)
-                .setIssuedAt(new Date())
+                .setId(UUID.randomUUID().toString())
+                .claim(CLAIM_ISSUED_AT_MS, issuedAt.getTime())
+                .setIssuedAt(issuedAt)
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS512)
                 .compact();
     }
     
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return getClaimsFromJwtToken(token).getSubject();
     }
     
-    public boolean validateJwtToken(String authToken) {
+    public Claims getClaimsFromJwtToken(String token) {
+        Claims claims = verifiedTokenCache.get(token);
+        if (claims == null) {
+            claims = jwtParser.parseClaimsJws(token).getBody();
+            verifiedTokenCache.put(token, claims);
+        }
+        return claims;
+    }
+    
+    /**
+     * Verifies the token and returns its claims in a single parse, or null if the
+     * token is invalid. Recently verified tokens are served from the cache without
+     * recomputing the signature.
+     */
+    public Claims verifyJwtToken(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            return getClaimsFromJwtToken(authToken);
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
             logger.error("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
             logger.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (io.jsonwebtoken.security.SecurityException e) {
+            logger.error("Invalid JWT signature: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
         }
         
-        return false;
+        return null;
+    }
+    
+    /**
+     * Rebuilds the authenticated principal from verified token claims.
+     * Returns null for tokens issued before the claims were embedded, so callers
+     * can fall back to loading the user from the database.
+     */
+    public UserDetailsImpl buildUserDetailsFromClaims(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        
+        GrantedAuthority authority = new SimpleGrantedAuthority(role);
+        return new UserDetailsImpl(
+                userId.longValue(),
+                claims.get(CLAIM_NAME, String.class),
+                claims.getSubject(),
+                null,
+                Collections.singletonList(authority)
+        );
+    }
+    
+    /**
+     * Epoch millis the token was issued at, or null if it carries no issue time.
+     * Tokens issued before the millisecond claim existed fall back to "iat".
+     */
+    public static Long getIssuedAtMillis(Claims claims) {
+        Number issuedAtMs = claims.get(CLAIM_ISSUED_AT_MS, Number.class);
+        if (issuedAtMs != null) {
+            return issuedAtMs.longValue();
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt != null ? issuedAt.getTime() : null;
+    }
+    
+    public boolean validateJwtToken(String authToken) {
+        return verifyJwtToken(authToken) != null;
     }
 }
 
@@ -0,0 +1,250 @@
+package com.eduquest.security;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token-bucket rate limiting for abuse-prone routes. Runs before AuthTokenFilter;
+ * authenticated callers are keyed by the user id in their JWT, everyone else by
+ * client IP. Buckets live in lock-striped LRU tables: a lookup only locks its
+ * key's stripe, and a full stripe drops its least recently used bucket, so a new
+ * caller always gets a bucket however many keys a client rotates through.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final int STRIPES = 16;
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.max-buckets:100000}")
+    private int maxBuckets;
+
+    @Value("${rate-limit.idle-timeout-ms:600000}")
+    private long idleTimeoutMs;
+
+    @Value("${rate-limit.login.capacity:10}")
+    private int loginCapacity;
+
+    @Value("${rate-limit.login.refill-per-minute:10}")
+    private int loginRefillPerMinute;
+
+    @Value("${rate-limit.search.capacity:30}")
+    private int searchCapacity;
+
+    @Value("${rate-limit.search.refill-per-minute:120}")
+    private int searchRefillPerMinute;
+
+    @Value("${rate-limit.progress.capacity:20}")
+    private int progressCapacity;
+
+    @Value("${rate-limit.progress.refill-per-minute:60}")
+    private int progressRefillPerMinute;
+
+    @Value("${rate-limit.progress-batch.capacity:5}")
+    private int progressBatchCapacity;
+
+    @Value("${rate-limit.progress-batch.refill-per-minute:10}")
+    private int progressBatchRefillPerMinute;
+
+    private final List<Rule> rules = new ArrayList<>();
+    private BucketStripe[] stripes;
+
+    @PostConstruct
+    void initRules() {
+        rules.add(new Rule("login", "POST", "/auth/login", loginCapacity, loginRefillPerMinute));
+        rules.add(new Rule("search", "GET", "/courses/search", searchCapacity, searchRefillPerMinute));
+        rules.add(new Rule("progress", "PUT", "/enroll/*/progress", progressCapacity, progressRefillPerMinute));
+        rules.add(new Rule("progress-batch", "POST", "/enroll/progress:batch", progressBatchCapacity, progressBatchRefillPerMinute));
+
+        int bucketsPerStripe = Math.max(1, (maxBuckets + STRIPES - 1) / STRIPES);
+        stripes = new BucketStripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new BucketStripe(bucketsPerStripe);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+        Rule rule = enabled ? matchRule(request) : null;
+        if (rule != null) {
+            TokenBucket bucket = bucketFor(rule, rule.name + ":" + clientKey(request));
+            long waitNanos = bucket.tryConsume(System.nanoTime());
+            if (waitNanos > 0) {
+                rule.rejected.increment();
+                long retryAfterSeconds = Math.max(1L, (long) Math.ceil(waitNanos / 1e9));
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+                response.getWriter().write("Error: Too many requests");
+                return;
+            }
+            rule.allowed.increment();
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private Rule matchRule(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Rule rule : rules) {
+            if (rule.method.equals(request.getMethod()) && PATH_MATCHER.match(rule.pattern, path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String headerAuth = request.getHeader("Authorization");
+        if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
+            // Verified tokens are cached, so AuthTokenFilter does not pay for this parse again
+            Claims claims = jwtUtils.verifyJwtToken(headerAuth.substring(7));
+            Object userId = claims != null ? claims.get(JwtUtils.CLAIM_USER_ID) : null;
+            if (userId != null) {
+                return "u" + userId;
+            }
+        }
+        return "ip" + request.getRemoteAddr();
+    }
+
+    private TokenBucket bucketFor(Rule rule, String key) {
+        return stripes[Math.floorMod(key.hashCode(), STRIPES)].getOrCreate(key, rule);
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long idleBefore = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        for (BucketStripe stripe : stripes) {
+            stripe.evictIdle(idleBefore);
+        }
+    }
+
+    private int bucketCount() {
+        int count = 0;
+        for (BucketStripe stripe : stripes) {
+            count += stripe.size();
+        }
+        return count;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("buckets", bucketCount());
+        for (Rule rule : rules) {
+            Map<String, Object> ruleStats = new LinkedHashMap<>();
+            ruleStats.put("route", rule.method + " " + rule.pattern);
+            ruleStats.put("capacity", rule.capacity);
+            ruleStats.put("refillPerMinute", rule.refillPerMinute);
+            ruleStats.put("allowed", rule.allowed.sum());
+            ruleStats.put("rejected", rule.rejected.sum());
+            stats.put(rule.name, ruleStats);
+        }
+        return stats;
+    }
+
+    private static final class Rule {
+        final String name;
+        final String method;
+        final String pattern;
+        final int capacity;
+        final int refillPerMinute;
+        final LongAdder allowed = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+
+        Rule(String name, String method, String pattern, int capacity, int refillPerMinute) {
+            this.name = name;
+            this.method = method;
+            this.pattern = pattern;
+            this.capacity = capacity;
+            this.refillPerMinute = refillPerMinute;
+        }
+    }
+
+    /**
+     * One lock stripe of the bucket table: an access-ordered map that drops its
+     * least recently used bucket once it holds more than its share.
+     */
+    private static final class BucketStripe {
+        private final LinkedHashMap<String, TokenBucket> buckets;
+
+        BucketStripe(int maxEntries) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+
+        synchronized TokenBucket getOrCreate(String key, Rule rule) {
+            return buckets.computeIfAbsent(key, k -> new TokenBucket(rule.capacity, rule.refillPerMinute, System.nanoTime()));
+        }
+
+        synchronized void evictIdle(long idleBefore) {
+            buckets.values().removeIf(bucket -> bucket.lastUsedNanos() - idleBefore < 0);
+        }
+
+        synchronized int size() {
+            return buckets.size();
+        }
+    }
+
+    static final class TokenBucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefillNanos;
+
+        TokenBucket(int capacity, int refillPerMinute, long nowNanos) {
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+            this.tokens = capacity;
+            this.lastRefillNanos = nowNanos;
+        }
+
+        /**
+         * Takes one token if available. Returns 0 on success, otherwise the time in
+         * nanoseconds until the next token is due.
+         */
+        synchronized long tryConsume(long nowNanos) {
+            tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) * tokensPerNano);
+            lastRefillNanos = nowNanos;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0L;
+            }
+            return tokensPerNano > 0 ? (long) Math.ceil((1 - tokens) / tokensPerNano) : Long.MAX_VALUE;
+        }
+
+        synchronized long lastUsedNanos() {
+            return lastRefillNanos;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.eduquest.security;
+
+import com.eduquest.entity.RevokedToken;
+import com.eduquest.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks revoked tokens in memory so the request path never touches the database.
+ * Single-token revocations go into a Bloom filter backed by an exact jti set; the
+ * common "not revoked" case is answered by the filter alone. Revoke-all entries
+ * are kept per user as a cutoff on the token's issued-at time. Everything is
+ * persisted to {@code revoked_tokens} and reloaded on startup.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${jwt.expiration}")
+    private int jwtExpirationMs;
+
+    @Value("${jwt.revocation.bloom-capacity:100000}")
+    private int bloomCapacity;
+
+    // jti -> epoch millis when the token expires
+    private final ConcurrentHashMap<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    // user id -> epoch millis; tokens issued at or before this instant are revoked
+    private final ConcurrentHashMap<Long, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    private volatile JtiBloomFilter bloomFilter;
+
+    @PostConstruct
+    void loadRevocations() {
+        bloomFilter = new JtiBloomFilter(bloomCapacity, 0.01);
+        for (RevokedToken revoked : revokedTokenRepository.findActive(LocalDateTime.now())) {
+            if (revoked.getJti() != null) {
+                revokedTokens.put(revoked.getJti(), toMillis(revoked.getExpiresAt()));
+                bloomFilter.put(revoked.getJti());
+            } else {
+                revokedBefore.merge(revoked.getUserId(), toMillis(revoked.getRevokedAt()), Math::max);
+            }
+        }
+        logger.info("Loaded {} revoked tokens and {} revoke-all entries", revokedTokens.size(), revokedBefore.size());
+    }
+
+    /**
+     * O(1) check used by AuthTokenFilter on every authenticated request.
+     */
+    public boolean isRevoked(Claims claims, Long userId) {
+        String jti = claims.getId();
+        if (jti != null && bloomFilter.mightContain(jti) && revokedTokens.containsKey(jti)) {
+            return true;
+        }
+
+        Long cutoff = userId != null ? revokedBefore.get(userId) : null;
+        if (cutoff != null) {
+            // Millisecond issue time, so a re-login in the same second as revoke-all stays valid
+            Long issuedAt = JwtUtils.getIssuedAtMillis(claims);
+            return issuedAt == null || issuedAt <= cutoff;
+        }
+        return false;
+    }
+
+    /**
+     * Revokes one token. A token without a jti cannot be told apart from the user's
+     * other tokens, so all of them are revoked instead, and false is returned. The
+     * in-memory state only changes once the revocation has committed.
+     */
+    @Transactional
+    public boolean revokeToken(Claims claims, Long userId) {
+        String jti = claims.getId();
+        if (jti == null) {
+            revokeAllForUser(userId);
+            return false;
+        }
+        if (revokedTokens.containsKey(jti)) {
+            return true;
+        }
+
+        Date expiration = claims.getExpiration();
+        long expiresAt = expiration != null ? expiration.getTime() : System.currentTimeMillis() + jwtExpirationMs;
+        revokedTokenRepository.insertIfAbsent(jti, userId, LocalDateTime.now(), toLocalDateTime(expiresAt));
+        afterCommit(() -> rememberRevokedToken(jti, expiresAt));
+        return true;
+    }
+
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        long now = System.currentTimeMillis();
+        revokedTokenRepository.save(new RevokedToken(null, userId, toLocalDateTime(now), toLocalDateTime(now + jwtExpirationMs)));
+        afterCommit(() -> revokedBefore.merge(userId, now, Math::max));
+    }
+
+    // Synchronized with purgeExpired, so a rebuilt Bloom filter cannot miss a jti added meanwhile
+    private synchronized void rememberRevokedToken(String jti, long expiresAt) {
+        revokedTokens.put(jti, expiresAt);
+        bloomFilter.put(jti);
+    }
+
+    /**
+     * Drops entries whose tokens have expired anyway and rebuilds the Bloom filter
+     * so it does not fill up over time.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:600000}")
+    @Transactional
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int deleted = revokedTokenRepository.deleteExpired(toLocalDateTime(now));
+
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedBefore.values().removeIf(cutoff -> cutoff + jwtExpirationMs <= now);
+
+        JtiBloomFilter rebuilt = new JtiBloomFilter(Math.max(bloomCapacity, revokedTokens.size() * 2), 0.01);
+        revokedTokens.keySet().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+
+        if (deleted > 0) {
+            logger.debug("Purged {} expired token revocations", deleted);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,88 @@
+package com.eduquest.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Size-bounded cache of recently verified tokens, keyed by the SHA-256 of the
+ * token so raw bearer tokens are never held in memory. Entries are dropped once
+ * the token itself expires.
+ */
+public class VerifiedTokenCache {
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, Claims> entries = new ConcurrentHashMap<>();
+
+    public VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public Claims get(String token) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+
+        String key = hash(token);
+        Claims claims = entries.get(key);
+        if (claims != null && isExpired(claims, System.currentTimeMillis())) {
+            entries.remove(key, claims);
+            return null;
+        }
+        return claims;
+    }
+
+    public void put(String token, Claims claims) {
+        if (maxEntries <= 0) {
+            return;
+        }
+
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+        entries.put(hash(token), claims);
+    }
+
+    public void invalidate(String token) {
+        entries.remove(hash(token));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(claims -> isExpired(claims, now));
+
+        // Still full of live tokens: drop an arbitrary slice rather than grow without bound
+        Iterator<Map.Entry<String, Claims>> it = entries.entrySet().iterator();
+        int toRemove = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        while (toRemove-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static boolean isExpired(Claims claims, long now) {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.getTime() <= now;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hashed = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hashed);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.eduquest.service;
+
+import com.eduquest.entity.Course;
+import com.eduquest.entity.OutboxEvent;
+import com.eduquest.entity.User;
+import com.eduquest.repository.CourseRepository;
+import com.eduquest.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streak and achievement side effects of enrollment and progress writes. In
+ * {@code outbox} mode they are recorded as OutboxEvent rows in the caller's
+ * transaction, so the request commits as soon as its own rows do, and an event
+ * exists exactly when its write committed. A poller hands each batch of pending
+ * events to a fixed pool of workers grouped by user: a user's events are applied
+ * in order, one active day at a time, in one transaction that also marks them
+ * processed, so a retry never repeats work that committed. Rows are not claimed,
+ * so several instances may apply the same event; the effects are idempotent: the
+ * streak is written with a compare-and-set, a second activity on the same day
+ * changes nothing, and the achievements table allows each type once per user,
+ * with inserts skipping conflicts. An event that fails is retried alone, with
+ * exponential backoff, while the user's later events wait; after the last attempt
+ * it is marked FAILED and can be requeued. Processed events are purged once they
+ * are older than the retention window; failed ones are kept for inspection. In
+ * {@code inline} mode they run in the caller's transaction.
+ */
+@Component
+public class AchievementOutbox {
+    
+    public static final String MODE_INLINE = "inline";
+    public static final String MODE_OUTBOX = "outbox";
+    
+    private static final Logger logger = LoggerFactory.getLogger(AchievementOutbox.class);
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private AchievementService achievementService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private String mode;
+    private final int workerCount;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMs;
+    private final long maxRetryBackoffMs;
+    private final Duration retention;
+    
+    // Work queued per poll is bounded by the batch size, one task per user
+    private final ExecutorService workers;
+    
+    private final LongAdder polls = new LongAdder();
+    private final LongAdder processedEvents = new LongAdder();
+    private final LongAdder failedAttempts = new LongAdder();
+    private final LongAdder abandonedEvents = new LongAdder();
+    private final LongAdder purgedEvents = new LongAdder();
+    
+    public AchievementOutbox(@Value("${achievement.processing.mode:outbox}") String mode,
+                             @Value("${achievement.outbox.workers:4}") int workers,
+                             @Value("${achievement.outbox.batch-size:500}") int batchSize,
+                             @Value("${achievement.outbox.max-attempts:10}") int maxAttempts,
+                             @Value("${achievement.outbox.retry-backoff-ms:1000}") long retryBackoffMs,
+                             @Value("${achievement.outbox.max-retry-backoff-ms:300000}") long maxRetryBackoffMs,
+                             @Value("${achievement.outbox.retention-hours:24}") long retentionHours) {
+        this.mode = mode;
+        this.workerCount = Math.max(1, workers);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMs = Math.max(1, retryBackoffMs);
+        this.maxRetryBackoffMs = Math.max(this.retryBackoffMs, maxRetryBackoffMs);
+        this.retention = Duration.ofHours(Math.max(0, retentionHours));
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "achievement-outbox-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        // Unfinished events stay pending and are picked up after restart
+        workers.shutdownNow();
+    }
+    
+    public boolean isEnabled() {
+        return MODE_OUTBOX.equals(mode);
+    }
+    
+    public void activity(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        activity(user, now, now);
+    }
+    
+    /**
+     * The user was active from {@code firstActivity} to {@code lastActivity};
+     * see {@link AchievementService#updateUserStreak(User, LocalDateTime, LocalDateTime)}.
+     */
+    public void activity(User user, LocalDateTime firstActivity, LocalDateTime lastActivity) {
+        if (!isEnabled()) {
+            achievementService.updateUserStreak(user, firstActivity, lastActivity);
+            return;
+        }
+        LocalDateTime lastActiveDay = user.getLastActivityDate();
+        if (lastActiveDay != null && !lastActivity.toLocalDate().isAfter(lastActiveDay.toLocalDate())) {
+            // Already counted, e.g. a repeated or stale progress update
+            return;
+        }
+        outboxEventRepository.save(new OutboxEvent(user.getId(), OutboxEvent.Type.ACTIVITY, null, firstActivity));
+        // Only the day counts for streaks
+        if (!lastActivity.toLocalDate().equals(firstActivity.toLocalDate())) {
+            outboxEventRepository.save(new OutboxEvent(user.getId(), OutboxEvent.Type.ACTIVITY, null, lastActivity));
+        }
+    }
+    
+    /**
+     * The user was active now, known only by id. Needs no read of the user: in
+     * outbox mode the event is inserted only if the user is not already counted
+     * as active today.
+     */
+    public void activity(Long userId) {
+        if (!isEnabled()) {
+            achievementService.updateUserStreaks(List.of(userId));
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        outboxEventRepository.insertActivityUnlessCounted(userId, now, now.toLocalDate().atStartOfDay());
+    }
+    
+    /**
+     * Many users were active now, such as a cohort enrolled at once; see
+     * {@link AchievementService#updateUserStreaks(Collection)}.
+     */
+    public void activity(Collection<Long> userIds) {
+        if (!isEnabled()) {
+            achievementService.updateUserStreaks(userIds);
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            events.add(new OutboxEvent(userId, OutboxEvent.Type.ACTIVITY, null, now));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+    
+    public void coursesCompleted(User user, Collection<Course> courses) {
+        if (courses.isEmpty()) {
+            return;
+        }
+        if (!isEnabled()) {
+            achievementService.evaluateAchievements(user, courses);
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            events.add(new OutboxEvent(user.getId(), OutboxEvent.Type.COURSE_COMPLETED, course.getId(), now));
+        }
+        outboxEventRepository.saveAll(events);
+    }
+    
+    @Scheduled(fixedDelayString = "${achievement.outbox.poll-interval-ms:200}")
+    public void poll() {
+        if (isEnabled()) {
+            processPending();
+        }
+    }
+    
+    /**
+     * Applies one batch of pending events and returns how many it took. The next
+     * batch is read only after every user in this one is settled, which keeps each
+     * user's events in order across batches.
+     */
+    public synchronized int processPending() {
+        List<OutboxEvent> events = outboxEventRepository.findDue(OutboxEvent.Status.PENDING, LocalDateTime.now(),
+                PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        polls.increment();
+        
+        Map<Long, List<OutboxEvent>> byUser = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            byUser.computeIfAbsent(event.getUserId(), userId -> new ArrayList<>()).add(event);
+        }
+        List<Future<?>> tasks = new ArrayList<>(byUser.size());
+        for (List<OutboxEvent> userEvents : byUser.values()) {
+            tasks.add(workers.submit(() -> processUser(userEvents)));
+        }
+        for (Future<?> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                logger.warn("Outbox worker failed", e.getCause());
+            }
+        }
+        return events.size();
+    }
+    
+    /**
+     * Deletes events processed longer ago than the retention window. Failed events
+     * are kept.
+     */
+    @Scheduled(fixedDelayString = "${achievement.outbox.purge-interval-ms:600000}")
+    @Transactional
+    public void purgeProcessed() {
+        int deleted = outboxEventRepository.deleteDoneBefore(OutboxEvent.Status.PROCESSED, LocalDateTime.now().minus(retention));
+        purgedEvents.add(deleted);
+        if (deleted > 0) {
+            logger.debug("Purged {} processed outbox events", deleted);
+        }
+    }
+    
+    /**
+     * Puts every FAILED event back in the queue with a fresh attempt budget, e.g.
+     * once the cause has been fixed. Returns how many were requeued. Activity older
+     * than what the user has since been credited for changes nothing when replayed;
+     * achievements are still awarded.
+     */
+    @Transactional
+    public int requeueFailed() {
+        int requeued = outboxEventRepository.requeue(OutboxEvent.Status.FAILED, OutboxEvent.Status.PENDING);
+        if (requeued > 0) {
+            logger.info("Requeued {} failed outbox events", requeued);
+        }
+        return requeued;
+    }
+    
+    private void processUser(List<OutboxEvent> events) {
+        RuntimeException failure = tryApply(events);
+        if (failure == null) {
+            return;
+        }
+        if (events.size() > 1) {
+            // Find the event that fails: one at a time, in order, so only it is charged an attempt
+            for (OutboxEvent event : events) {
+                failure = tryApply(List.of(event));
+                if (failure != null) {
+                    recordFailure(event, failure);
+                    return;
+                }
+            }
+            return;
+        }
+        recordFailure(events.get(0), failure);
+    }
+    
+    // Applies the events and marks them processed in one transaction; returns the failure, if any
+    private RuntimeException tryApply(List<OutboxEvent> events) {
+        List<Long> ids = events.stream().map(OutboxEvent::getId).toList();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                apply(events);
+                outboxEventRepository.markDone(ids, OutboxEvent.Status.PROCESSED, LocalDateTime.now());
+            });
+            processedEvents.add(events.size());
+            return null;
+        } catch (RuntimeException e) {
+            failedAttempts.increment();
+            return e;
+        }
+    }
+    
+    /**
+     * Charges the event an attempt and backs it off exponentially, holding back the
+     * user's later events meanwhile. Once out of attempts it is marked FAILED, which
+     * releases them; {@link #requeueFailed()} brings it back.
+     */
+    private void recordFailure(OutboxEvent event, RuntimeException e) {
+        logger.warn("Applying outbox event {} for user {} failed", event.getId(), event.getUserId(), e);
+        String error = String.valueOf(e.getMessage());
+        int attempts = event.getAttempts() + 1;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime nextAttemptAt = now.plus(backoff(attempts));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            outboxEventRepository.recordFailure(event.getId(), error.length() > 500 ? error.substring(0, 500) : error, nextAttemptAt);
+            if (attempts >= maxAttempts) {
+                outboxEventRepository.markDone(List.of(event.getId()), OutboxEvent.Status.FAILED, now);
+            }
+        });
+        if (attempts >= maxAttempts) {
+            abandonedEvents.increment();
+        }
+    }
+    
+    private Duration backoff(int attempts) {
+        long delayMs = retryBackoffMs << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delayMs, maxRetryBackoffMs));
+    }
+    
+    // Everything pending for one user: one streak update over each distinct day of activity, one achievement evaluation
+    private void apply(List<OutboxEvent> events) {
+        User user = userService.getUserById(events.get(0).getUserId()).orElse(null);
+        if (user == null) {
+            // Deleted since; nothing left to update
+            return;
+        }
+        
+        // Earliest activity per day, in day order
+        Map<LocalDate, LocalDateTime> activeDays = new TreeMap<>();
+        List<Long> completedCourseIds = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            if (event.getType() == OutboxEvent.Type.ACTIVITY) {
+                LocalDateTime at = event.getOccurredAt();
+                activeDays.merge(at.toLocalDate(), at, (a, b) -> a.isBefore(b) ? a : b);
+            } else if (event.getType() == OutboxEvent.Type.COURSE_COMPLETED) {
+                completedCourseIds.add(event.getCourseId());
+            }
+        }
+        
+        if (!activeDays.isEmpty()) {
+            achievementService.updateUserStreak(user, activeDays.values());
+        }
+        if (!completedCourseIds.isEmpty()) {
+            achievementService.evaluateAchievements(user, courseRepository.findAllById(completedCourseIds));
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        LocalDateTime oldestPending = outboxEventRepository.findOldestCreatedAt(OutboxEvent.Status.PENDING);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", isEnabled() ? MODE_OUTBOX : MODE_INLINE);
+        stats.put("workers", workerCount);
+        stats.put("pendingEvents", outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING));
+        stats.put("lagMs", oldestPending != null ? Math.max(0, Duration.between(oldestPending, LocalDateTime.now()).toMillis()) : 0);
+        stats.put("failedEvents", outboxEventRepository.countByStatus(OutboxEvent.Status.FAILED));
+        stats.put("polls", polls.sum());
+        stats.put("processedEvents", processedEvents.sum());
+        stats.put("failedAttempts", failedAttempts.sum());
+        stats.put("abandonedEvents", abandonedEvents.sum());
+        stats.put("purgedEvents", purgedEvents.sum());
+        return stats;
+    }
+}
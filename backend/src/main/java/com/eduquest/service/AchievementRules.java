@@ -0,0 +1,101 @@
+package com.eduquest.service;
+
+import com.eduquest.entity.Achievement.AchievementType;
+import com.eduquest.entity.User;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Declarative achievement definitions: each rule is a predicate over an
+ * {@link AchievementStats} snapshot plus the text of the achievement it awards.
+ * A type is earned at most once per user. Each rule belongs to the {@link Trigger}
+ * that can change its outcome and is only checked for that event. Rules are
+ * checked in this order, so FIRST_COURSE is awarded together with the
+ * COURSE_COMPLETION it follows.
+ */
+final class AchievementRules {
+    
+    enum Trigger {
+        COURSE_COMPLETED,
+        STREAK_CHANGED,
+        COURSE_CREATED
+    }
+    
+    static final List<Rule> ALL = List.of(
+            new Rule(Trigger.COURSE_COMPLETED, AchievementType.COURSE_COMPLETION, AchievementStats::isCompletion,
+                    s -> "Course Completed: " + s.getCompletedCourseTitle(),
+                    s -> "Congratulations! You have successfully completed the course: " + s.getCompletedCourseTitle()),
+            fixed(Trigger.COURSE_COMPLETED, AchievementType.FIRST_COURSE, AchievementStats::isCompletion,
+                    "First Course Completed", "You completed your first course! Keep up the great work!"),
+            new Rule(Trigger.COURSE_COMPLETED, AchievementType.PERFECT_SCORE, AchievementStats::isCompletion,
+                    s -> "Perfect Score: " + s.getCompletedCourseTitle(),
+                    s -> "Outstanding! You achieved a perfect score in " + s.getCompletedCourseTitle()),
+            // Completed within the course's first week
+            new Rule(Trigger.COURSE_COMPLETED, AchievementType.EARLY_BIRD, s -> s.isCompletedCourseNewerThan(7),
+                    s -> "Early Bird: " + s.getCompletedCourseTitle(),
+                    s -> "You were one of the first to complete this course!"),
+            fixed(Trigger.COURSE_COMPLETED, AchievementType.DEDICATED_LEARNER, s -> s.getCompletedCourses() >= 5,
+                    "Dedicated Learner", "You've completed 5 courses! Your dedication to learning is inspiring!"),
+            fixed(Trigger.STREAK_CHANGED, AchievementType.STREAK_3_DAYS, s -> s.getCurrentStreak() >= 3,
+                    "3-Day Streak", "You've maintained a 3-day learning streak! Great dedication!"),
+            fixed(Trigger.STREAK_CHANGED, AchievementType.STREAK_7_DAYS, s -> s.getCurrentStreak() >= 7,
+                    "7-Day Streak", "Amazing! You've maintained a 7-day learning streak!"),
+            fixed(Trigger.STREAK_CHANGED, AchievementType.STREAK_30_DAYS, s -> s.getCurrentStreak() >= 30,
+                    "30-Day Streak", "Incredible dedication! You've maintained a 30-day learning streak!"),
+            fixed(Trigger.COURSE_CREATED, AchievementType.COURSE_CREATOR, s -> s.getRole() == User.Role.INSTRUCTOR,
+                    "Course Creator", "You've created educational content for others to learn from!"),
+            fixed(Trigger.COURSE_CREATED, AchievementType.MENTOR, s -> s.getRole() == User.Role.INSTRUCTOR,
+                    "Mentor", "You're helping others learn and grow through your teaching!"));
+    
+    private static final Map<Trigger, List<Rule>> BY_TRIGGER = new EnumMap<>(Trigger.class);
+    
+    static {
+        for (Trigger trigger : Trigger.values()) {
+            BY_TRIGGER.put(trigger, ALL.stream().filter(rule -> rule.trigger == trigger).toList());
+        }
+    }
+    
+    private AchievementRules() {}
+    
+    static List<Rule> forTrigger(Trigger trigger) {
+        return BY_TRIGGER.get(trigger);
+    }
+    
+    private static Rule fixed(Trigger trigger, AchievementType type, Predicate<AchievementStats> condition,
+                              String title, String description) {
+        return new Rule(trigger, type, condition, s -> title, s -> description);
+    }
+    
+    static final class Rule {
+        final Trigger trigger;
+        final AchievementType type;
+        private final Predicate<AchievementStats> condition;
+        private final Function<AchievementStats, String> title;
+        private final Function<AchievementStats, String> description;
+        
+        Rule(Trigger trigger, AchievementType type, Predicate<AchievementStats> condition,
+             Function<AchievementStats, String> title, Function<AchievementStats, String> description) {
+            this.trigger = trigger;
+            this.type = type;
+            this.condition = condition;
+            this.title = title;
+            this.description = description;
+        }
+        
+        boolean matches(AchievementStats stats) {
+            return condition.test(stats);
+        }
+        
+        String titleFor(AchievementStats stats) {
+            return title.apply(stats);
+        }
+        
+        String descriptionFor(AchievementStats stats) {
+            return description.apply(stats);
+        }
+    }
+}
@@ -5,11 +5,20 @@ import com.eduquest.entity.Course;
 import com.eduquest.entity.Enrollment;
 import com.eduquest.entity.User;
 import com.eduquest.repository.AchievementRepository;
+import com.eduquest.repository.EnrollmentRepository;
+import com.eduquest.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,11 +26,29 @@ import java.util.Optional;
 @Transactional
 public class AchievementService {
     
+    private static final String INSERT_SQL =
+            "INSERT INTO achievements (user_id, title, description, type, earned_date) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT DO NOTHING";
+    
+    private static final List<Integer> STREAK_MILESTONES = List.of(3, 7, 30);
+    
     @Autowired
     private AchievementRepository achievementRepository;
     
     @Autowired
-    private UserService userService;
+    private UserRepository userRepository;
+    
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private DashboardSummaryService dashboardSummaryService;
+    
+    @Autowired
+    private DashboardCache dashboardCache;
     
     public List<Achievement> getUserAchievements(User user) {
         return achievementRepository.findByUserOrderByEarnedDateDesc(user);
@@ -35,6 +62,11 @@ public class AchievementService {
         return achievementRepository.countByUserId(userId);
     }
     
+    @Transactional(readOnly = true)
+    public List<Achievement> getRecentAchievements(Long userId, int limit) {
+        return achievementRepository.findByUserIdOrderByEarnedDateDesc(userId, PageRequest.of(0, limit));
+    }
+    
     public Achievement awardAchievement(User user, String title, String description, Achievement.AchievementType type) {
         // Check if user already has this achievement
         Optional<Achievement> existingAchievement = achievementRepository.findFirstByUserIdAndType(user.getId(), type);
@@ -44,119 +76,181 @@ public class AchievementService {
         
         // Create new achievement
         Achievement achievement = new Achievement(user, title, description, type);
-        return achievementRepository.save(achievement);
+        achievement = achievementRepository.save(achievement);
+        dashboardSummaryService.achievementAwarded(user.getId());
+        dashboardCache.invalidate(user.getId());
+        return achievement;
     }
     
-    public void checkAndAwardCourseCompletionAchievement(User user, Course course) {
-        // Award course completion achievement
-        String title = "Course Completed: " + course.getTitle();
-        String description = "Congratulations! You have successfully completed the course: " + course.getTitle();
-        awardAchievement(user, title, description, Achievement.AchievementType.COURSE_COMPLETION);
-        
-        // Check for first course achievement
-        Long courseCompletionCount = achievementRepository.countByUserIdAndType(user.getId(), Achievement.AchievementType.COURSE_COMPLETION);
-        if (courseCompletionCount == 1) {
-            awardAchievement(user, "First Course Completed", "You completed your first course! Keep up the great work!", Achievement.AchievementType.FIRST_COURSE);
+    /**
+     * Runs the course completion rules for a user, once per course they just
+     * completed, and awards the types they newly satisfy. Returns how many were
+     * awarded.
+     */
+    public int evaluateAchievements(User user, Collection<Course> completedCourses) {
+        if (completedCourses.isEmpty()) {
+            return 0;
         }
+        return evaluate(user, AchievementRules.Trigger.COURSE_COMPLETED, completedCourses);
     }
     
     public void checkAndAwardStreakAchievements(User user) {
-        Integer currentStreak = user.getCurrentStreak();
-        
-        if (currentStreak != null) {
-            if (currentStreak >= 3 && !hasAchievement(user, Achievement.AchievementType.STREAK_3_DAYS)) {
-                awardAchievement(user, "3-Day Streak", "You've maintained a 3-day learning streak! Great dedication!", Achievement.AchievementType.STREAK_3_DAYS);
-            }
-            
-            if (currentStreak >= 7 && !hasAchievement(user, Achievement.AchievementType.STREAK_7_DAYS)) {
-                awardAchievement(user, "7-Day Streak", "Amazing! You've maintained a 7-day learning streak!", Achievement.AchievementType.STREAK_7_DAYS);
-            }
-            
-            if (currentStreak >= 30 && !hasAchievement(user, Achievement.AchievementType.STREAK_30_DAYS)) {
-                awardAchievement(user, "30-Day Streak", "Incredible dedication! You've maintained a 30-day learning streak!", Achievement.AchievementType.STREAK_30_DAYS);
-            }
-        }
+        evaluate(user, AchievementRules.Trigger.STREAK_CHANGED, List.of());
     }
     
-    public void checkAndAwardPerfectScoreAchievement(User user, Course course) {
-        // This would be called when a user gets 100% on a course
-        String title = "Perfect Score: " + course.getTitle();
-        String description = "Outstanding! You achieved a perfect score in " + course.getTitle();
-        awardAchievement(user, title, description, Achievement.AchievementType.PERFECT_SCORE);
+    public void checkAndAwardCourseCreatorAchievements(User instructor) {
+        evaluate(instructor, AchievementRules.Trigger.COURSE_CREATED, List.of());
     }
     
-    public void checkAndAwardEarlyBirdAchievement(User user, Course course) {
-        // Award early bird achievement if user completes course within first week
-        LocalDateTime oneWeekAgo = LocalDateTime.now().minusDays(7);
-        if (course.getCreatedAt().isAfter(oneWeekAgo)) {
-            String title = "Early Bird: " + course.getTitle();
-            String description = "You were one of the first to complete this course!";
-            awardAchievement(user, title, description, Achievement.AchievementType.EARLY_BIRD);
+    /**
+     * Runs the rules for one trigger, once per completed course (or once if
+     * none), and awards the types the user newly satisfies. The rules only
+     * read a snapshot taken up front; the types already earned are loaded into an
+     * EnumSet with one query, and only if some rule holds. New achievements are
+     * written in one JDBC batch that skips types awarded concurrently, e.g. by
+     * another instance applying the same outbox event. Returns how many were
+     * awarded.
+     */
+    private int evaluate(User user, AchievementRules.Trigger trigger, Collection<Course> completedCourses) {
+        long completions = completedCourses.isEmpty() ? 0
+                : enrollmentRepository.countByUserIdAndCompletionStatus(user.getId(), Enrollment.CompletionStatus.COMPLETED);
+        int streak = user.getCurrentStreak() != null ? user.getCurrentStreak() : 0;
+        AchievementStats stats = new AchievementStats(user.getRole(), streak, completions, null, LocalDateTime.now());
+        List<AchievementStats> snapshots = completedCourses.isEmpty()
+                ? List.of(stats)
+                : completedCourses.stream().map(stats::withCompletedCourse).toList();
+        
+        EnumSet<Achievement.AchievementType> earned = null;
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>();
+        for (AchievementStats snapshot : snapshots) {
+            for (AchievementRules.Rule rule : AchievementRules.forTrigger(trigger)) {
+                if (!rule.matches(snapshot)) {
+                    continue;
+                }
+                if (earned == null) {
+                    earned = EnumSet.noneOf(Achievement.AchievementType.class);
+                    earned.addAll(achievementRepository.findTypesByUserId(user.getId()));
+                }
+                if (earned.add(rule.type)) {
+                    batch.add(new Object[] {user.getId(), rule.titleFor(snapshot), rule.descriptionFor(snapshot),
+                            rule.type.name(), now});
+                }
+            }
         }
-    }
-    
-    public void checkAndAwardDedicatedLearnerAchievement(User user) {
-        // Award if user has completed 5 or more courses
-        Long completedCourses = achievementRepository.countByUserIdAndType(user.getId(), Achievement.AchievementType.COURSE_COMPLETION);
-        if (completedCourses >= 5 && !hasAchievement(user, Achievement.AchievementType.DEDICATED_LEARNER)) {
-            awardAchievement(user, "Dedicated Learner", "You've completed 5 courses! Your dedication to learning is inspiring!", Achievement.AchievementType.DEDICATED_LEARNER);
+        if (batch.isEmpty()) {
+            return 0;
         }
-    }
-    
-    public void checkAndAwardCourseCreatorAchievement(User user) {
-        // Award if user is an instructor and has created courses
-        if (user.getRole() == User.Role.INSTRUCTOR) {
-            // This would need to be implemented based on course creation count
-            // For now, we'll award it if user is an instructor
-            if (!hasAchievement(user, Achievement.AchievementType.COURSE_CREATOR)) {
-                awardAchievement(user, "Course Creator", "You've created educational content for others to learn from!", Achievement.AchievementType.COURSE_CREATOR);
-            }
+        
+        int awarded = 0;
+        for (int count : jdbcTemplate.batchUpdate(INSERT_SQL, batch)) {
+            // SUCCESS_NO_INFO (-2) still means the row was written
+            awarded += count != 0 ? 1 : 0;
+        }
+        if (awarded == 0) {
+            return 0;
         }
+        dashboardSummaryService.achievementsAwarded(user.getId(), awarded);
+        dashboardCache.invalidate(user.getId());
+        return awarded;
     }
     
-    public void checkAndAwardMentorAchievement(User user) {
-        // Award if user has helped other students (this would need additional logic)
-        // For now, we'll award it to instructors
-        if (user.getRole() == User.Role.INSTRUCTOR && !hasAchievement(user, Achievement.AchievementType.MENTOR)) {
-            awardAchievement(user, "Mentor", "You're helping others learn and grow through your teaching!", Achievement.AchievementType.MENTOR);
-        }
+    public void updateUserStreak(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        updateUserStreak(user, now, now);
     }
     
-    private boolean hasAchievement(User user, Achievement.AchievementType type) {
-        return achievementRepository.findFirstByUserIdAndType(user.getId(), type).isPresent();
+    /**
+     * Counts a span of activity, such as progress replayed by an offline client,
+     * as activity on its first and last day, then saves the user and checks the
+     * streak achievements once.
+     */
+    public void updateUserStreak(User user, LocalDateTime firstActivity, LocalDateTime lastActivity) {
+        updateUserStreak(user, List.of(firstActivity, lastActivity));
     }
     
-    public void updateUserStreak(User user) {
-        LocalDateTime now = LocalDateTime.now();
+    /**
+     * Counts activity at each of the given times, oldest first, as if each had
+     * been recorded as it happened, then checks the streak achievements once. Only
+     * the streak columns are written, and only if the last activity is still the
+     * one the streak was computed from; if another writer got there first, such as
+     * a cohort enrollment, the streak is recomputed from the current row.
+     */
+    public void updateUserStreak(User user, Collection<LocalDateTime> activity) {
+        // Stored timestamps keep microseconds; compare against what the row will hold
+        List<LocalDateTime> times = activity.stream().map(at -> at.truncatedTo(ChronoUnit.MICROS)).sorted().toList();
+        Integer streak = user.getCurrentStreak();
         LocalDateTime lastActivity = user.getLastActivityDate();
-        
-        if (lastActivity == null) {
-            // First activity
-            user.setCurrentStreak(1);
-            user.setLastActivityDate(now);
-        } else {
-            LocalDateTime yesterday = now.minusDays(1);
-            LocalDateTime twoDaysAgo = now.minusDays(2);
-            
-            if (lastActivity.toLocalDate().equals(now.toLocalDate())) {
-                // Same day, no change to streak
+        for (int attempt = 1; ; attempt++) {
+            Integer newStreak = streak;
+            LocalDateTime newLastActivity = lastActivity;
+            boolean changed = false;
+            for (LocalDateTime at : times) {
+                if (newLastActivity == null || newLastActivity.toLocalDate().isBefore(at.toLocalDate())) {
+                    newStreak = nextStreak(newStreak, newLastActivity, at);
+                    newLastActivity = at;
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                // Same day (or older than the last activity), no change to streak
                 return;
-            } else if (lastActivity.toLocalDate().equals(yesterday.toLocalDate())) {
-                // Consecutive day, increment streak
-                user.setCurrentStreak(user.getCurrentStreak() + 1);
-            } else if (lastActivity.toLocalDate().isBefore(twoDaysAgo.toLocalDate())) {
-                // Streak broken, reset to 1
-                user.setCurrentStreak(1);
             }
             
-            user.setLastActivityDate(now);
+            if (userRepository.updateStreak(user.getId(), lastActivity, newStreak, newLastActivity) > 0) {
+                user.setCurrentStreak(newStreak);
+                user.setLastActivityDate(newLastActivity);
+                break;
+            }
+            List<Object[]> current = userRepository.findStreakById(user.getId());
+            if (current.isEmpty() || attempt >= 3) {
+                throw new RuntimeException("Could not update the streak of user " + user.getId());
+            }
+            streak = (Integer) current.get(0)[0];
+            lastActivity = (LocalDateTime) current.get(0)[1];
         }
         
-        userService.updateUser(user);
+        dashboardCache.invalidate(user.getId());
         
         // Check for streak achievements
         checkAndAwardStreakAchievements(user);
     }
+    
+    /**
+     * Batched form of {@link #updateUserStreak(User)} for many users active now,
+     * such as a cohort enrolled at once: one UPDATE for all of them, then streak
+     * achievement checks only for those sitting on a milestone.
+     */
+    public void updateUserStreaks(Collection<Long> userIds) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime today = now.toLocalDate().atStartOfDay();
+        if (userRepository.recordActivity(userIds, now, today, today.minusDays(1), today.minusDays(2)) == 0) {
+            return;
+        }
+        
+        userIds.forEach(dashboardCache::invalidate);
+        for (User user : userRepository.findByIdInAndCurrentStreakIn(userIds, STREAK_MILESTONES)) {
+            checkAndAwardStreakAchievements(user);
+        }
+    }
+    
+    // Streak after activity at a later day than the last one
+    private static Integer nextStreak(Integer streak, LocalDateTime lastActivity, LocalDateTime at) {
+        if (lastActivity == null) {
+            // First activity
+            return 1;
+        }
+        
+        LocalDate lastDay = lastActivity.toLocalDate();
+        if (lastDay.equals(at.toLocalDate().minusDays(1))) {
+            // Consecutive day, increment streak
+            return (streak != null ? streak : 0) + 1;
+        } else if (lastDay.isBefore(at.toLocalDate().minusDays(2))) {
+            // Streak broken, reset to 1
+            return 1;
+        }
+        return streak;
+    }
 }
 
 
@@ -0,0 +1,62 @@
+package com.eduquest.service;
+
+import com.eduquest.entity.Course;
+import com.eduquest.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * What the achievement rules look at: a snapshot of one user and, when the
+ * evaluation is about a completion, the course just completed. Taken once per
+ * evaluation, so the rules themselves never touch the database.
+ */
+final class AchievementStats {
+    
+    private final User.Role role;
+    private final int currentStreak;
+    private final long completedCourses;
+    private final Course completedCourse;
+    private final LocalDateTime now;
+    
+    AchievementStats(User.Role role, int currentStreak, long completedCourses, Course completedCourse, LocalDateTime now) {
+        this.role = role;
+        this.currentStreak = currentStreak;
+        this.completedCourses = completedCourses;
+        this.completedCourse = completedCourse;
+        this.now = now;
+    }
+    
+    AchievementStats withCompletedCourse(Course course) {
+        return new AchievementStats(role, currentStreak, completedCourses, course, now);
+    }
+    
+    User.Role getRole() {
+        return role;
+    }
+    
+    int getCurrentStreak() {
+        return currentStreak;
+    }
+    
+    // Only counted for completion evaluations; 0 otherwise
+    long getCompletedCourses() {
+        return completedCourses;
+    }
+    
+    boolean isCompletion() {
+        return completedCourse != null;
+    }
+    
+    Course getCompletedCourse() {
+        return completedCourse;
+    }
+    
+    String getCompletedCourseTitle() {
+        return completedCourse.getTitle();
+    }
+    
+    boolean isCompletedCourseNewerThan(int days) {
+        return completedCourse != null && completedCourse.getCreatedAt() != null
+                && completedCourse.getCreatedAt().isAfter(now.minusDays(days));
+    }
+}
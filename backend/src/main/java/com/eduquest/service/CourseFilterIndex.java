@@ -0,0 +1,454 @@
+package com.eduquest.service;
+
+import com.eduquest.dto.CourseDto;
+import com.eduquest.dto.CourseFacetsDto;
+import com.eduquest.dto.CourseFilterDto;
+import com.eduquest.entity.Course;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bitmap index over the catalog for combined filters and facet counts. Each
+ * course gets a dense ordinal, handed out in id order so that walking a bitmap
+ * yields courses in listing order. There is one {@link CompactBitmap} per
+ * category (dictionary-encoded), level and instructor, and one per power-of-two
+ * value bucket for duration, lessons and enrollment count. A filter is the AND
+ * across attributes of the OR within each; range filters OR the buckets they
+ * cover and check exact values only in the two edge buckets.
+ */
+@Component
+public class CourseFilterIndex implements CourseIndex {
+    
+    private static final Course.Level[] LEVELS = Course.Level.values();
+    
+    // Ordinals freed by deletes before the table is compacted
+    private static final int MIN_HOLES_TO_COMPACT = 1024;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // ordinal -> row; deleted slots are null until the next compaction
+    private Row[] rows = new Row[16];
+    private int ordinalCount;
+    private int holes;
+    private final Map<Long, Integer> ordinalOf = new HashMap<>();
+    private CompactBitmap live = new CompactBitmap();
+    
+    // Dictionary: category -> code, and code -> category. Codes are never reused.
+    private final Map<String, Integer> categoryCodes = new HashMap<>();
+    private final List<String> categoryNames = new ArrayList<>();
+    private final List<CompactBitmap> byCategory = new ArrayList<>();
+    
+    private final CompactBitmap[] byLevel = new CompactBitmap[LEVELS.length];
+    private final Map<Long, CompactBitmap> byInstructor = new HashMap<>();
+    
+    private final RangeBitmaps byDuration = new RangeBitmaps();
+    private final RangeBitmaps byLessons = new RangeBitmaps();
+    private final RangeBitmaps byEnrolled = new RangeBitmaps();
+    
+    public CourseFilterIndex() {
+        clear();
+    }
+    
+    @Override
+    public void rebuild(Collection<CourseDto> courses) {
+        lock.writeLock().lock();
+        try {
+            clear();
+            courses.stream()
+                    .sorted(Comparator.comparing(CourseDto::getId))
+                    .forEach(course -> add(new Row(course, categoryCode(course.getCategory()))));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void upsert(CourseDto course) {
+        lock.writeLock().lock();
+        try {
+            Row row = new Row(course, categoryCode(course.getCategory()));
+            Integer ordinal = ordinalOf.get(course.getId());
+            if (ordinal != null) {
+                unindex(ordinal, rows[ordinal]);
+                rows[ordinal] = row;
+                index(ordinal, row);
+            } else if (ordinalCount > 0 && course.getId() < lastId()) {
+                // Commits can land out of id order; re-sort rather than break listing order
+                add(row);
+                compact();
+            } else {
+                add(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void remove(Long courseId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalOf.remove(courseId);
+            if (ordinal == null) {
+                return;
+            }
+            unindex(ordinal, rows[ordinal]);
+            live.remove(ordinal);
+            rows[ordinal] = null;
+            holes++;
+            if (holes >= MIN_HOLES_TO_COMPACT && holes * 4 >= ordinalCount) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void enrollmentChanged(Long courseId, int delta) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalOf.get(courseId);
+            if (ordinal == null) {
+                return;
+            }
+            Row row = rows[ordinal];
+            byEnrolled.remove(ordinal, row.enrolled);
+            row.enrolled = Math.max(0, row.enrolled + delta);
+            byEnrolled.add(ordinal, row.enrolled);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Ids of the courses matching the filter, ascending, starting after
+     * {@code afterId}. At most {@code limit} ids are returned.
+     */
+    public List<Long> findIds(CourseFilterDto filter, Long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            CompactBitmap matches = match(filter);
+            int from = afterId != null ? firstOrdinalAfter(afterId) : 0;
+            List<Long> ids = new ArrayList<>(Math.min(limit, 128));
+            for (int ordinal = matches.nextSetBit(from); ordinal >= 0 && ids.size() < limit;
+                 ordinal = matches.nextSetBit(ordinal + 1)) {
+                ids.add(rows[ordinal].id);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * Category and level counts over the courses matching the filter, or over the
+     * whole catalog when {@code filter} is null.
+     */
+    public CourseFacetsDto getFacets(CourseFilterDto filter) {
+        lock.readLock().lock();
+        try {
+            CompactBitmap base = filter != null ? match(filter) : live;
+            Map<String, Integer> categories = new HashMap<>();
+            Map<Course.Level, Integer> levels = new EnumMap<>(Course.Level.class);
+            Map<String, Map<Course.Level, Integer>> categoryLevels = new HashMap<>();
+            
+            CompactBitmap[] levelMatches = new CompactBitmap[LEVELS.length];
+            for (Course.Level level : LEVELS) {
+                levelMatches[level.ordinal()] = base.and(byLevel[level.ordinal()]);
+                levels.put(level, levelMatches[level.ordinal()].cardinality());
+            }
+            
+            for (int code = 0; code < byCategory.size(); code++) {
+                if (byCategory.get(code).isEmpty()) {
+                    continue;
+                }
+                int categoryTotal = 0;
+                Map<Course.Level, Integer> byLevelCount = new EnumMap<>(Course.Level.class);
+                for (Course.Level level : LEVELS) {
+                    int count = levelMatches[level.ordinal()].and(byCategory.get(code)).cardinality();
+                    byLevelCount.put(level, count);
+                    categoryTotal += count;
+                }
+                if (categoryTotal > 0) {
+                    categories.put(categoryNames.get(code), categoryTotal);
+                    categoryLevels.put(categoryNames.get(code), byLevelCount);
+                }
+            }
+            
+            // Largest categories first, as the catalog filter lists them
+            Map<String, Integer> sortedCategories = new LinkedHashMap<>();
+            categories.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(entry -> sortedCategories.put(entry.getKey(), entry.getValue()));
+            
+            return new CourseFacetsDto(base.cardinality(), sortedCategories, levels, categoryLevels);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private CompactBitmap match(CourseFilterDto filter) {
+        CompactBitmap result = live;
+        if (filter.getCategory() != null) {
+            CompactBitmap any = new CompactBitmap();
+            for (String category : filter.getCategory()) {
+                Integer code = categoryCodes.get(category);
+                if (code != null) {
+                    any = any.or(byCategory.get(code));
+                }
+            }
+            result = result.and(any);
+        }
+        if (filter.getLevel() != null && !result.isEmpty()) {
+            CompactBitmap any = new CompactBitmap();
+            for (Course.Level level : filter.getLevel()) {
+                any = any.or(byLevel[level.ordinal()]);
+            }
+            result = result.and(any);
+        }
+        if (filter.getInstructorId() != null && !result.isEmpty()) {
+            CompactBitmap any = new CompactBitmap();
+            for (Long instructorId : filter.getInstructorId()) {
+                CompactBitmap courses = byInstructor.get(instructorId);
+                if (courses != null) {
+                    any = any.or(courses);
+                }
+            }
+            result = result.and(any);
+        }
+        if ((filter.getMinDuration() != null || filter.getMaxDuration() != null) && !result.isEmpty()) {
+            result = result.and(byDuration.between(filter.getMinDuration(), filter.getMaxDuration(), row -> row.duration));
+        }
+        if ((filter.getMinLessons() != null || filter.getMaxLessons() != null) && !result.isEmpty()) {
+            result = result.and(byLessons.between(filter.getMinLessons(), filter.getMaxLessons(), row -> row.lessons));
+        }
+        if (filter.getMinEnrolled() != null && !result.isEmpty()) {
+            result = result.and(byEnrolled.between(filter.getMinEnrolled(), null, row -> row.enrolled));
+        }
+        return result;
+    }
+    
+    private void clear() {
+        rows = new Row[16];
+        ordinalCount = 0;
+        holes = 0;
+        ordinalOf.clear();
+        live = new CompactBitmap();
+        categoryCodes.clear();
+        categoryNames.clear();
+        byCategory.clear();
+        for (int i = 0; i < byLevel.length; i++) {
+            byLevel[i] = new CompactBitmap();
+        }
+        byInstructor.clear();
+        byDuration.clear();
+        byLessons.clear();
+        byEnrolled.clear();
+    }
+    
+    // Re-assigns ordinals densely in id order; bitmaps are rebuilt from the rows
+    private void compact() {
+        List<Row> current = new ArrayList<>(ordinalOf.size());
+        for (int ordinal = 0; ordinal < ordinalCount; ordinal++) {
+            if (rows[ordinal] != null) {
+                current.add(rows[ordinal]);
+            }
+        }
+        current.sort(Comparator.comparingLong(row -> row.id));
+        
+        // Keep the category dictionary so codes held by the rows stay valid
+        rows = new Row[Math.max(16, current.size())];
+        ordinalCount = 0;
+        holes = 0;
+        ordinalOf.clear();
+        live = new CompactBitmap();
+        byCategory.replaceAll(bitmap -> new CompactBitmap());
+        for (int i = 0; i < byLevel.length; i++) {
+            byLevel[i] = new CompactBitmap();
+        }
+        byInstructor.clear();
+        byDuration.clear();
+        byLessons.clear();
+        byEnrolled.clear();
+        current.forEach(this::add);
+    }
+    
+    private void add(Row row) {
+        if (ordinalCount == rows.length) {
+            rows = Arrays.copyOf(rows, ordinalCount * 2);
+        }
+        int ordinal = ordinalCount++;
+        rows[ordinal] = row;
+        ordinalOf.put(row.id, ordinal);
+        live.add(ordinal);
+        index(ordinal, row);
+    }
+    
+    private void index(int ordinal, Row row) {
+        if (row.category >= 0) {
+            byCategory.get(row.category).add(ordinal);
+        }
+        if (row.level != null) {
+            byLevel[row.level.ordinal()].add(ordinal);
+        }
+        if (row.instructorId != null) {
+            byInstructor.computeIfAbsent(row.instructorId, id -> new CompactBitmap()).add(ordinal);
+        }
+        byDuration.add(ordinal, row.duration);
+        byLessons.add(ordinal, row.lessons);
+        byEnrolled.add(ordinal, row.enrolled);
+    }
+    
+    private void unindex(int ordinal, Row row) {
+        if (row.category >= 0) {
+            byCategory.get(row.category).remove(ordinal);
+        }
+        if (row.level != null) {
+            byLevel[row.level.ordinal()].remove(ordinal);
+        }
+        if (row.instructorId != null) {
+            CompactBitmap courses = byInstructor.get(row.instructorId);
+            courses.remove(ordinal);
+            if (courses.isEmpty()) {
+                byInstructor.remove(row.instructorId);
+            }
+        }
+        byDuration.remove(ordinal, row.duration);
+        byLessons.remove(ordinal, row.lessons);
+        byEnrolled.remove(ordinal, row.enrolled);
+    }
+    
+    private int categoryCode(String category) {
+        if (category == null) {
+            return -1;
+        }
+        return categoryCodes.computeIfAbsent(category, name -> {
+            categoryNames.add(name);
+            byCategory.add(new CompactBitmap());
+            return categoryNames.size() - 1;
+        });
+    }
+    
+    private long lastId() {
+        for (int ordinal = ordinalCount - 1; ordinal >= 0; ordinal--) {
+            if (rows[ordinal] != null) {
+                return rows[ordinal].id;
+            }
+        }
+        return Long.MIN_VALUE;
+    }
+    
+    // Ordinals are in id order, so the first ordinal past a cursor is a binary search away
+    private int firstOrdinalAfter(long afterId) {
+        int low = 0;
+        int high = ordinalCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int probe = mid;
+            while (probe < high && rows[probe] == null) {
+                probe++;
+            }
+            if (probe == high) {
+                high = mid;
+            } else if (rows[probe].id <= afterId) {
+                low = probe + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private final class RangeBitmaps {
+        
+        // Bucket 0 holds the value 0, bucket b >= 1 holds [2^(b-1), 2^b - 1]
+        private final CompactBitmap[] buckets = new CompactBitmap[32];
+        
+        void clear() {
+            Arrays.fill(buckets, null);
+        }
+        
+        void add(int ordinal, int value) {
+            if (value < 0) {
+                return;
+            }
+            int bucket = bucketOf(value);
+            if (buckets[bucket] == null) {
+                buckets[bucket] = new CompactBitmap();
+            }
+            buckets[bucket].add(ordinal);
+        }
+        
+        void remove(int ordinal, int value) {
+            if (value >= 0 && buckets[bucketOf(value)] != null) {
+                buckets[bucketOf(value)].remove(ordinal);
+            }
+        }
+        
+        CompactBitmap between(Integer min, Integer max, ToIntFunction<Row> value) {
+            int low = min != null ? Math.max(0, min) : 0;
+            int high = max != null ? max : Integer.MAX_VALUE;
+            CompactBitmap result = new CompactBitmap();
+            if (low > high) {
+                return result;
+            }
+            for (int bucket = bucketOf(low); bucket <= bucketOf(high); bucket++) {
+                CompactBitmap members = buckets[bucket];
+                if (members == null) {
+                    continue;
+                }
+                int bucketLow = bucket == 0 ? 0 : 1 << (bucket - 1);
+                int bucketHigh = bucket == 0 ? 0 : (int) ((1L << bucket) - 1);
+                if (bucketLow >= low && bucketHigh <= high) {
+                    result = result.or(members);
+                    continue;
+                }
+                // Edge bucket: keep only the members whose exact value is in range
+                for (int ordinal = members.nextSetBit(0); ordinal >= 0; ordinal = members.nextSetBit(ordinal + 1)) {
+                    int v = value.applyAsInt(rows[ordinal]);
+                    if (v >= low && v <= high) {
+                        result.add(ordinal);
+                    }
+                }
+            }
+            return result;
+        }
+        
+        private int bucketOf(int value) {
+            return 32 - Integer.numberOfLeadingZeros(value);
+        }
+    }
+    
+    private static final class Row {
+        final long id;
+        final int category;
+        final Course.Level level;
+        final Long instructorId;
+        // -1 when unknown, which keeps the course out of range matches
+        final int duration;
+        final int lessons;
+        int enrolled;
+        
+        Row(CourseDto course, int category) {
+            this.id = course.getId();
+            this.category = category;
+            this.level = course.getLevel();
+            this.instructorId = course.getInstructorId();
+            this.duration = course.getDuration() != null ? course.getDuration() : -1;
+            this.lessons = course.getLessons() != null ? course.getLessons() : -1;
+            this.enrolled = course.getStudentsEnrolled() != null ? course.getStudentsEnrolled() : 0;
+        }
+    }
+}
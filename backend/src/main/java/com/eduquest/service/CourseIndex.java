@@ -0,0 +1,24 @@
+package com.eduquest.service;
+
+import com.eduquest.dto.CourseDto;
+
+import java.util.Collection;
+
+/**
+ * An in-memory view of the course catalog. Implementations are registered with
+ * CourseIndexer, which seeds them on startup and feeds them every committed
+ * course write. The {@link CourseDto} passed in carries the full description.
+ * Enrollment count changes arrive separately as deltas, since they are far more
+ * frequent than edits and most indexes do not depend on them.
+ */
+public interface CourseIndex {
+    
+    void rebuild(Collection<CourseDto> courses);
+    
+    void upsert(CourseDto course);
+    
+    void remove(Long courseId);
+    
+    default void enrollmentChanged(Long courseId, int delta) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.eduquest.service;
+
+import com.eduquest.dto.CourseDto;
+import com.eduquest.entity.Course;
+import com.eduquest.repository.CourseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps every {@link CourseIndex} in step with the courses table. Indexes are
+ * rebuilt from the database once the application is up; after that CourseService
+ * reports each write here and it is applied once the surrounding transaction
+ * commits, so a rolled-back write never becomes visible in search or listings.
+ */
+@Component
+public class CourseIndexer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(CourseIndexer.class);
+    
+    @Autowired
+    private List<CourseIndex> indexes;
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildAll() {
+        long start = System.nanoTime();
+        List<CourseDto> courses = courseRepository.findAllWithInstructor().stream()
+                .map(CourseDto::new)
+                .collect(Collectors.toList());
+        indexes.forEach(index -> index.rebuild(courses));
+        logger.info("Indexed {} courses into {} course indexes in {} ms",
+                courses.size(), indexes.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    public void courseSaved(Course course) {
+        // Snapshot now, while the instructor can still be read inside the transaction
+        CourseDto snapshot = new CourseDto(course);
+        afterCommit(() -> indexes.forEach(index -> index.upsert(snapshot)));
+    }
+    
+    public void courseDeleted(Long courseId) {
+        afterCommit(() -> indexes.forEach(index -> index.remove(courseId)));
+    }
+    
+    public void enrollmentChanged(Long courseId, int delta) {
+        if (delta != 0) {
+            afterCommit(() -> indexes.forEach(index -> index.enrollmentChanged(courseId, delta)));
+        }
+    }
+    
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,261 @@
+package com.eduquest.service;
+
+import com.eduquest.dto.CourseDto;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over course title, category and description with BM25 ranking.
+ * Each query term matches exact terms first, then terms it is a prefix of (so
+ * results appear while the user is still typing), then terms that share enough
+ * character trigrams to absorb small typos. Prefix and fuzzy matches score lower
+ * than exact ones. Field weights fold into a single weighted term frequency and
+ * document length (a simplified BM25F).
+ */
+@Component
+public class CourseSearchIndex implements CourseIndex {
+    
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    
+    private static final double PREFIX_FACTOR = 0.7;
+    private static final double FUZZY_FACTOR = 0.5;
+    private static final double MIN_TRIGRAM_SIMILARITY = 0.45;
+    private static final int MAX_EXPANSIONS = 32;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    // term -> (course id -> weighted term frequency); sorted for prefix ranges
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    
+    private final Map<String, Set<String>> termsByTrigram = new HashMap<>();
+    
+    private final Map<Long, Document> documents = new HashMap<>();
+    
+    private double totalLength;
+    
+    @Override
+    public void rebuild(Collection<CourseDto> courses) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            termsByTrigram.clear();
+            documents.clear();
+            totalLength = 0;
+            courses.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void upsert(CourseDto course) {
+        lock.writeLock().lock();
+        try {
+            delete(course.getId());
+            add(course);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void remove(Long courseId) {
+        lock.writeLock().lock();
+        try {
+            delete(courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns every matching course, best first (score descending, then id).
+     */
+    public List<Hit> search(String query) {
+        Set<String> tokens = new LinkedHashSet<>(CourseText.tokenize(query));
+        List<Hit> hits = new ArrayList<>();
+        if (tokens.isEmpty()) {
+            return hits;
+        }
+        
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return hits;
+            }
+            
+            int documentCount = documents.size();
+            double averageLength = totalLength / documentCount;
+            Map<Long, Double> scores = new HashMap<>();
+            
+            for (String token : tokens) {
+                // A course counts once per query term, via its best-matching expansion
+                Map<Long, Double> tokenScores = new HashMap<>();
+                expand(token).forEach((term, factor) -> {
+                    Map<Long, Float> posting = postings.get(term);
+                    double idf = Math.log(1 + (documentCount - posting.size() + 0.5) / (posting.size() + 0.5));
+                    posting.forEach((courseId, tf) -> {
+                        double length = documents.get(courseId).length;
+                        double norm = tf + K1 * (1 - B + B * length / averageLength);
+                        double score = factor * idf * tf * (K1 + 1) / norm;
+                        tokenScores.merge(courseId, score, Math::max);
+                    });
+                });
+                tokenScores.forEach((courseId, score) -> scores.merge(courseId, score, Double::sum));
+            }
+            
+            scores.forEach((courseId, score) -> hits.add(new Hit(courseId, score)));
+        } finally {
+            lock.readLock().unlock();
+        }
+        
+        hits.sort((a, b) -> a.score != b.score ? Double.compare(b.score, a.score) : Long.compare(a.courseId, b.courseId));
+        return hits;
+    }
+    
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Index terms a query token matches, with the factor applied to their score
+    private Map<String, Double> expand(String token) {
+        Map<String, Double> expansions = new HashMap<>();
+        if (postings.containsKey(token)) {
+            expansions.put(token, 1.0);
+        }
+        
+        if (token.length() >= 2) {
+            for (String term : postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                if (expansions.size() >= MAX_EXPANSIONS) {
+                    break;
+                }
+                expansions.put(term, PREFIX_FACTOR);
+            }
+        }
+        
+        if (expansions.isEmpty() && token.length() >= 3) {
+            Set<String> grams = CourseText.trigrams(token);
+            Map<String, Integer> shared = new HashMap<>();
+            for (String gram : grams) {
+                for (String term : termsByTrigram.getOrDefault(gram, Set.of())) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+            shared.entrySet().stream()
+                    .map(entry -> Map.entry(entry.getKey(), similarity(entry.getValue(), grams.size(), entry.getKey())))
+                    .filter(entry -> entry.getValue() >= MIN_TRIGRAM_SIMILARITY)
+                    .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                    .limit(MAX_EXPANSIONS)
+                    .forEach(entry -> expansions.put(entry.getKey(), FUZZY_FACTOR * entry.getValue()));
+        }
+        return expansions;
+    }
+    
+    // Dice coefficient over trigram sets; a padded term of length n has n trigrams
+    private static double similarity(int sharedGrams, int queryGrams, String term) {
+        return Math.min(1.0, 2.0 * sharedGrams / (queryGrams + term.length()));
+    }
+    
+    private void add(CourseDto course) {
+        Map<String, Float> frequencies = new HashMap<>();
+        float length = 0;
+        length += accumulate(frequencies, course.getTitle(), TITLE_WEIGHT);
+        length += accumulate(frequencies, course.getCategory(), CATEGORY_WEIGHT);
+        length += accumulate(frequencies, course.getDescription(), DESCRIPTION_WEIGHT);
+        
+        frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, this::newTerm).put(course.getId(), tf));
+        documents.put(course.getId(), new Document(new HashSet<>(frequencies.keySet()), length));
+        totalLength += length;
+    }
+    
+    private void delete(Long courseId) {
+        Document document = documents.remove(courseId);
+        if (document == null) {
+            return;
+        }
+        
+        totalLength -= document.length;
+        for (String term : document.terms) {
+            Map<Long, Float> posting = postings.get(term);
+            posting.remove(courseId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+                for (String gram : CourseText.trigrams(term)) {
+                    Set<String> terms = termsByTrigram.get(gram);
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        termsByTrigram.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+    
+    private Map<Long, Float> newTerm(String term) {
+        for (String gram : CourseText.trigrams(term)) {
+            termsByTrigram.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+        }
+        return new HashMap<>();
+    }
+    
+    private static float accumulate(Map<String, Float> frequencies, String text, float weight) {
+        List<String> tokens = CourseText.tokenize(text);
+        for (String token : tokens) {
+            frequencies.merge(token, weight, Float::sum);
+        }
+        return tokens.size() * weight;
+    }
+    
+    public static final class Hit {
+        private final Long courseId;
+        private final double score;
+        
+        Hit(Long courseId, double score) {
+            this.courseId = courseId;
+            this.score = score;
+        }
+        
+        public Long getCourseId() {
+            return courseId;
+        }
+        
+        public double getScore() {
+            return score;
+        }
+        
+        // True if this hit sorts strictly after the given position
+        boolean isAfter(double score, Long courseId) {
+            return this.score < score || (this.score == score && this.courseId > courseId);
+        }
+    }
+    
+    private static final class Document {
+        final Set<String> terms;
+        final float length;
+        
+        Document(Set<String> terms, float length) {
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+}
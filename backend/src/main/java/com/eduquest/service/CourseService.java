@@ -1,20 +1,34 @@
 package com.eduquest.service;
 
 import com.eduquest.dto.CourseCreateDto;
+import com.eduquest.dto.CourseDto;
+import com.eduquest.dto.CourseFilterDto;
+import com.eduquest.dto.CourseSearchResultDto;
+import com.eduquest.dto.CursorPageDto;
 import com.eduquest.entity.Course;
 import com.eduquest.entity.User;
 import com.eduquest.repository.CourseRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class CourseService {
     
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    
     @Autowired
     private CourseRepository courseRepository;
     
@@ -24,6 +38,24 @@ public class CourseService {
     @Autowired
     private AchievementService achievementService;
     
+    @Autowired
+    private DashboardSummaryService dashboardSummaryService;
+    
+    @Autowired
+    private DashboardCache dashboardCache;
+    
+    @Autowired
+    private CourseIndexer courseIndexer;
+    
+    @Autowired
+    private CourseSearchIndex courseSearchIndex;
+    
+    @Autowired
+    private CourseFilterIndex courseFilterIndex;
+    
+    @Autowired
+    private EnrollmentCountBuffer enrollmentCountBuffer;
+    
     public List<Course> getAllCourses() {
         return courseRepository.findAll();
     }
@@ -49,10 +81,10 @@ public class CourseService {
         course.setStudentsEnrolled(0);
         
         course = courseRepository.save(course);
+        courseIndexer.courseSaved(course);
         
         // Award course creator achievement
-        achievementService.checkAndAwardCourseCreatorAchievement(instructor);
-        achievementService.checkAndAwardMentorAchievement(instructor);
+        achievementService.checkAndAwardCourseCreatorAchievements(instructor);
         
         return course;
     }
@@ -70,10 +102,18 @@ public class CourseService {
         course.setDescription(courseDto.getDescription());
         course.setCategory(courseDto.getCategory());
         course.setLevel(courseDto.getLevel());
+        if (!Objects.equals(course.getDuration(), courseDto.getDuration())) {
+            // Completed hours on enrolled users' dashboards depend on the duration
+            dashboardSummaryService.invalidateForCourse(id);
+        }
         course.setDuration(courseDto.getDuration());
         course.setLessons(courseDto.getLessons());
         
-        return courseRepository.save(course);
+        // Course titles and hours appear on the dashboards of every enrolled student
+        dashboardCache.invalidateAll();
+        course = courseRepository.save(course);
+        courseIndexer.courseSaved(course);
+        return course;
     }
     
     public void deleteCourse(Long id, User currentUser) {
@@ -85,7 +125,12 @@ public class CourseService {
             throw new RuntimeException("Only admin can delete courses");
         }
         
+        // Enrollments go with the course, so their users' summaries are rebuilt on next read
+        dashboardSummaryService.invalidateForCourse(id);
+        dashboardCache.invalidateAll();
         courseRepository.delete(course);
+        courseIndexer.courseDeleted(id);
+        enrollmentCountBuffer.forget(id);
     }
     
     public List<Course> getCoursesByInstructor(User instructor) {
@@ -104,6 +149,76 @@ public class CourseService {
         return courseRepository.findByTitleOrDescriptionContaining(searchTerm);
     }
     
+    /**
+     * Ranked search served from CourseSearchIndex; only the rows for the requested
+     * page are read from the database, by primary key.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<CourseSearchResultDto> searchCoursesPage(String query, String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int size = clampPageSize(limit);
+        List<CourseSearchIndex.Hit> hits = courseSearchIndex.search(query);
+        
+        int start = 0;
+        if (after != null) {
+            double afterScore = after.getKeyAsDouble();
+            while (start < hits.size() && !hits.get(start).isAfter(afterScore, after.getId())) {
+                start++;
+            }
+        }
+        
+        int end = Math.min(start + size, hits.size());
+        if (start >= end) {
+            return new CursorPageDto<>(List.of(), null, size);
+        }
+        List<CourseSearchIndex.Hit> pageHits = hits.subList(start, end);
+        
+        Map<Long, CourseDto> rows = findSummariesByIds(
+                pageHits.stream().map(CourseSearchIndex.Hit::getCourseId).collect(Collectors.toList()));
+        
+        List<CourseSearchResultDto> items = new ArrayList<>();
+        for (CourseSearchIndex.Hit hit : pageHits) {
+            CourseDto row = rows.get(hit.getCourseId());
+            if (row != null) {
+                items.add(new CourseSearchResultDto(row, hit.getScore()));
+            }
+        }
+        
+        CourseSearchIndex.Hit last = pageHits.get(pageHits.size() - 1);
+        String nextCursor = end < hits.size() ? KeysetCursor.encode(last.getScore(), last.getCourseId()) : null;
+        return new CursorPageDto<>(items, nextCursor, size);
+    }
+    
+    /**
+     * Listing filtered by any combination of category, level, instructor, duration,
+     * lessons and enrollment count. Matching ids come from CourseFilterIndex in id
+     * order; only the page's rows are read, by primary key.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<CourseDto> getFilteredCoursesPage(CourseFilterDto filter, String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int size = clampPageSize(limit);
+        List<Long> ids = courseFilterIndex.findIds(filter, after != null ? after.getId() : null, size + 1);
+        
+        List<Long> pageIds = ids.subList(0, Math.min(size, ids.size()));
+        Map<Long, CourseDto> rows = findSummariesByIds(pageIds);
+        List<CourseDto> items = pageIds.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        
+        String nextCursor = ids.size() > size ? KeysetCursor.encode(null, pageIds.get(size - 1)) : null;
+        return new CursorPageDto<>(items, nextCursor, size);
+    }
+    
+    private Map<Long, CourseDto> findSummariesByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return courseRepository.findSummariesByIds(ids).stream()
+                .collect(Collectors.toMap(CourseDto::getId, Function.identity()));
+    }
+    
     public List<Course> getPopularCourses() {
         return courseRepository.findAllOrderByStudentsEnrolledDesc();
     }
@@ -112,17 +227,100 @@ public class CourseService {
         return courseRepository.findAllOrderByCreatedAtDesc();
     }
     
+    @Transactional(readOnly = true)
+    public CursorPageDto<CourseDto> getCoursesPage(String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable page = pageOf(limit);
+        List<CourseDto> rows = after == null
+                ? courseRepository.findFirstPage(page)
+                : courseRepository.findPageAfter(after.getId(), page);
+        return toPage(rows, limit, course -> null);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDto<CourseDto> getCoursesByCategoryPage(String category, String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable page = pageOf(limit);
+        List<CourseDto> rows = after == null
+                ? courseRepository.findFirstPageByCategory(category, page)
+                : courseRepository.findPageByCategoryAfter(category, after.getId(), page);
+        return toPage(rows, limit, course -> null);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDto<CourseDto> getCoursesByLevelPage(Course.Level level, String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable page = pageOf(limit);
+        List<CourseDto> rows = after == null
+                ? courseRepository.findFirstPageByLevel(level, page)
+                : courseRepository.findPageByLevelAfter(level, after.getId(), page);
+        return toPage(rows, limit, course -> null);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDto<CourseDto> getPopularCoursesPage(String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable page = pageOf(limit);
+        List<CourseDto> rows = after == null
+                ? courseRepository.findFirstPopularPage(page)
+                : courseRepository.findPopularPageAfter(after.getKeyAsInt(), after.getId(), page);
+        return toPage(rows, limit, CourseDto::getStudentsEnrolled);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPageDto<CourseDto> getRecentCoursesPage(String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable page = pageOf(limit);
+        List<CourseDto> rows = after == null
+                ? courseRepository.findFirstRecentPage(page)
+                : courseRepository.findRecentPageAfter(after.getKeyAsDateTime(), after.getId(), page);
+        return toPage(rows, limit, CourseDto::getCreatedAt);
+    }
+    
+    public static int clampPageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+    
+    // Fetch one extra row so we know whether a next page exists without a COUNT query
+    private static Pageable pageOf(int limit) {
+        return PageRequest.of(0, clampPageSize(limit) + 1);
+    }
+    
+    private static CursorPageDto<CourseDto> toPage(List<CourseDto> rows, int limit, Function<CourseDto, Object> sortKey) {
+        int size = clampPageSize(limit);
+        if (rows.size() <= size) {
+            return new CursorPageDto<>(rows, null, size);
+        }
+        
+        List<CourseDto> items = rows.subList(0, size);
+        CourseDto last = items.get(size - 1);
+        return new CursorPageDto<>(items, KeysetCursor.encode(sortKey.apply(last), last.getId()), size);
+    }
+    
     public void incrementStudentsEnrolled(Long courseId) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new RuntimeException("Course not found with id: " + courseId));
-        course.incrementStudentsEnrolled();
-        courseRepository.save(course);
+        changeStudentsEnrolled(courseId, 1);
     }
     
     public void decrementStudentsEnrolled(Long courseId) {
-        Course course = courseRepository.findById(courseId)
-                .orElseThrow(() -> new RuntimeException("Course not found with id: " + courseId));
-        course.decrementStudentsEnrolled();
-        courseRepository.save(course);
+        changeStudentsEnrolled(courseId, -1);
+    }
+    
+    /**
+     * Applies an enrollment count delta without reading the course. In atomic mode
+     * this is one UPDATE whose row lock is held until the caller commits, so
+     * callers make it their last write; in write-behind mode the delta is
+     * buffered and flushed in batches by EnrollmentCountBuffer.
+     */
+    public void changeStudentsEnrolled(Long courseId, int delta) {
+        if (enrollmentCountBuffer.isEnabled()) {
+            enrollmentCountBuffer.add(courseId, delta);
+        } else if (courseRepository.addStudentsEnrolled(courseId, delta) == 0) {
+            if (!courseRepository.existsById(courseId)) {
+                throw new RuntimeException("Course not found with id: " + courseId);
+            }
+            // Already at zero; nothing changed
+            return;
+        }
+        courseIndexer.enrollmentChanged(courseId, delta);
     }
 }
@@ -0,0 +1,270 @@
+package com.eduquest.service;
+
+import com.eduquest.dto.CourseDto;
+import com.eduquest.dto.CourseSuggestionDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typeahead over course titles and categories. Suggestions live in an immutable
+ * radix trie whose nodes each carry the top-k suggestions below them, ranked by
+ * enrollment, so a lookup is a walk down the prefix and a copy of at most k
+ * entries, with no database access. Any catalog change rebuilds the trie off to
+ * the side and publishes it with a single volatile write; readers never lock.
+ *
+ * Titles are indexed from every word start, so "conc" finds "Advanced Java
+ * Concurrency" as well as titles beginning with it.
+ */
+@Component
+public class CourseSuggester implements CourseIndex {
+    
+    private static final Node EMPTY = new Node("", new char[0], new Node[0], new int[0]);
+    
+    private final int topK;
+    
+    // Source of truth for rebuilds; only touched under this object's monitor
+    private final Map<Long, CourseDto> courses = new HashMap<>();
+    
+    private volatile Snapshot snapshot = new Snapshot(EMPTY, new CourseSuggestionDto[0]);
+    
+    public CourseSuggester(@Value("${course-suggest.top-k:10}") int topK) {
+        this.topK = Math.max(1, topK);
+    }
+    
+    @Override
+    public synchronized void rebuild(Collection<CourseDto> all) {
+        courses.clear();
+        all.forEach(course -> courses.put(course.getId(), summary(course)));
+        publish();
+    }
+    
+    @Override
+    public synchronized void upsert(CourseDto course) {
+        courses.put(course.getId(), summary(course));
+        publish();
+    }
+    
+    @Override
+    public synchronized void remove(Long courseId) {
+        if (courses.remove(courseId) != null) {
+            publish();
+        }
+    }
+    
+    public List<CourseSuggestionDto> suggest(String prefix, int limit) {
+        String key = String.join(" ", CourseText.tokenize(prefix));
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        
+        Snapshot current = snapshot;
+        int[] ranked = current.root.find(key);
+        int count = Math.min(Math.max(limit, 0), ranked.length);
+        List<CourseSuggestionDto> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(current.suggestions[ranked[i]]);
+        }
+        return result;
+    }
+    
+    public int getTopK() {
+        return topK;
+    }
+    
+    private void publish() {
+        // Rank suggestions once; from then on a lower index means a better suggestion
+        List<CourseSuggestionDto> suggestions = new ArrayList<>();
+        Map<String, int[]> categoryTotals = new HashMap<>();
+        Map<String, String> categoryNames = new HashMap<>();
+        for (CourseDto course : courses.values()) {
+            int enrolled = course.getStudentsEnrolled() != null ? course.getStudentsEnrolled() : 0;
+            suggestions.add(new CourseSuggestionDto(course.getTitle(), CourseSuggestionDto.SuggestionType.COURSE,
+                    course.getId(), enrolled));
+            String category = String.join(" ", CourseText.tokenize(course.getCategory()));
+            if (!category.isEmpty()) {
+                categoryTotals.computeIfAbsent(category, c -> new int[1])[0] += enrolled;
+                categoryNames.putIfAbsent(category, course.getCategory());
+            }
+        }
+        categoryTotals.forEach((category, total) -> suggestions.add(new CourseSuggestionDto(
+                categoryNames.get(category), CourseSuggestionDto.SuggestionType.CATEGORY, null, total[0])));
+        
+        suggestions.sort(Comparator.comparing(CourseSuggestionDto::getStudentsEnrolled, Comparator.reverseOrder())
+                .thenComparing(s -> s.getText().length())
+                .thenComparing(CourseSuggestionDto::getText));
+        
+        List<String> keys = new ArrayList<>();
+        IntList targets = new IntList();
+        for (int i = 0; i < suggestions.size(); i++) {
+            CourseSuggestionDto suggestion = suggestions.get(i);
+            List<String> words = CourseText.tokenize(suggestion.getText());
+            int starts = suggestion.getType() == CourseSuggestionDto.SuggestionType.COURSE ? words.size() : 1;
+            for (int w = 0; w < starts; w++) {
+                keys.add(String.join(" ", words.subList(w, words.size())));
+                targets.add(i);
+            }
+        }
+        
+        // Sort keys with their targets attached; ties keep the better-ranked target first
+        String[] sortedKeys = new String[keys.size()];
+        int[] sortedTargets = new int[keys.size()];
+        KeyedTarget[] entries = new KeyedTarget[keys.size()];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = new KeyedTarget(keys.get(i), targets.get(i));
+        }
+        Arrays.sort(entries);
+        for (int i = 0; i < entries.length; i++) {
+            sortedKeys[i] = entries[i].key;
+            sortedTargets[i] = entries[i].target;
+        }
+        
+        Node root = sortedKeys.length == 0 ? EMPTY : build(sortedKeys, sortedTargets, 0, sortedKeys.length, 0);
+        snapshot = new Snapshot(root, suggestions.toArray(new CourseSuggestionDto[0]));
+    }
+    
+    // Builds the node for keys[lo, hi), which all share their first `depth` characters
+    private Node build(String[] keys, int[] targets, int lo, int hi, int depth) {
+        // Keys are sorted, so the common prefix of the first and last is common to all
+        String first = keys[lo];
+        String last = keys[hi - 1];
+        int end = depth;
+        while (end < first.length() && end < last.length() && first.charAt(end) == last.charAt(end)) {
+            end++;
+        }
+        
+        IntList candidates = new IntList();
+        int i = lo;
+        while (i < hi && keys[i].length() == end) {
+            candidates.add(targets[i++]);
+        }
+        
+        List<Node> children = new ArrayList<>();
+        while (i < hi) {
+            char c = keys[i].charAt(end);
+            int j = i;
+            while (j < hi && keys[j].charAt(end) == c) {
+                j++;
+            }
+            Node child = build(keys, targets, i, j, end);
+            children.add(child);
+            for (int target : child.top) {
+                candidates.add(target);
+            }
+            i = j;
+        }
+        
+        char[] labels = new char[children.size()];
+        for (int c = 0; c < labels.length; c++) {
+            labels[c] = children.get(c).edge.charAt(0);
+        }
+        return new Node(first.substring(depth, end), labels, children.toArray(new Node[0]), candidates.smallestDistinct(topK));
+    }
+    
+    // Only the fields suggestions need, so the description is not retained
+    private static CourseDto summary(CourseDto course) {
+        CourseDto summary = new CourseDto();
+        summary.setId(course.getId());
+        summary.setTitle(course.getTitle());
+        summary.setCategory(course.getCategory());
+        summary.setStudentsEnrolled(course.getStudentsEnrolled());
+        return summary;
+    }
+    
+    private static final class KeyedTarget implements Comparable<KeyedTarget> {
+        final String key;
+        final int target;
+        
+        KeyedTarget(String key, int target) {
+            this.key = key;
+            this.target = target;
+        }
+        
+        @Override
+        public int compareTo(KeyedTarget other) {
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : Integer.compare(target, other.target);
+        }
+    }
+    
+    // Growable int buffer to avoid boxing while collecting candidates during a rebuild
+    private static final class IntList {
+        private int[] values = new int[8];
+        private int size;
+        
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+        
+        int get(int index) {
+            return values[index];
+        }
+        
+        int[] smallestDistinct(int limit) {
+            int[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            int[] result = new int[Math.min(limit, size)];
+            int count = 0;
+            for (int i = 0; i < sorted.length && count < result.length; i++) {
+                if (count == 0 || sorted[i] != result[count - 1]) {
+                    result[count++] = sorted[i];
+                }
+            }
+            return count == result.length ? result : Arrays.copyOf(result, count);
+        }
+    }
+    
+    private static final class Snapshot {
+        final Node root;
+        final CourseSuggestionDto[] suggestions;
+        
+        Snapshot(Node root, CourseSuggestionDto[] suggestions) {
+            this.root = root;
+            this.suggestions = suggestions;
+        }
+    }
+    
+    private static final class Node {
+        final String edge;
+        final char[] labels;
+        final Node[] children;
+        final int[] top;
+        
+        Node(String edge, char[] labels, Node[] children, int[] top) {
+            this.edge = edge;
+            this.labels = labels;
+            this.children = children;
+            this.top = top;
+        }
+        
+        int[] find(String prefix) {
+            Node node = this;
+            int pos = 0;
+            while (true) {
+                int n = Math.min(node.edge.length(), prefix.length() - pos);
+                if (!prefix.regionMatches(pos, node.edge, 0, n)) {
+                    return EMPTY.top;
+                }
+                pos += n;
+                if (pos == prefix.length()) {
+                    return node.top;
+                }
+                int child = Arrays.binarySearch(node.labels, prefix.charAt(pos));
+                if (child < 0) {
+                    return EMPTY.top;
+                }
+                node = node.children[child];
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.eduquest.service;
+
+import com.eduquest.dto.DashboardDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Per-user cache of built dashboards, bounded by size and TTL. Each entry is a
+ * future, so concurrent misses for the same user wait on the one computation in
+ * flight instead of starting their own. Write paths call {@link #invalidate}
+ * whenever something shown on the dashboard changes; the entry is dropped
+ * immediately and again after the surrounding transaction commits, so a read that
+ * raced the write cannot leave pre-commit data behind.
+ */
+@Component
+public class DashboardCache {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final ConcurrentHashMap<Long, CompletableFuture<Entry>> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final AtomicLong maxLoadNanos = new AtomicLong();
+
+    public DashboardCache(@Value("${dashboard.cache.max-size:10000}") int maxEntries,
+                          @Value("${dashboard.cache.ttl-ms:30000}") long ttlMs) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMs * 1_000_000L;
+    }
+
+    public DashboardDto get(Long userId, Supplier<DashboardDto> loader) {
+        if (maxEntries <= 0) {
+            return loader.get();
+        }
+
+        while (true) {
+            CompletableFuture<Entry> existing = entries.get(userId);
+            if (existing != null) {
+                if (!existing.isDone()) {
+                    coalesced.increment();
+                    return await(existing).dashboard;
+                }
+                Entry entry = entryOf(existing);
+                if (!isExpired(entry, System.nanoTime())) {
+                    hits.increment();
+                    return entry.dashboard;
+                }
+                expirations.increment();
+            }
+
+            CompletableFuture<Entry> mine = new CompletableFuture<>();
+            boolean installed = existing == null
+                    ? entries.putIfAbsent(userId, mine) == null
+                    : entries.replace(userId, existing, mine);
+            if (!installed) {
+                continue;
+            }
+
+            misses.increment();
+            if (entries.size() > maxEntries) {
+                evict();
+            }
+            return load(userId, mine, loader);
+        }
+    }
+
+    public void invalidate(Long userId) {
+        invalidations.increment();
+        entries.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.remove(userId);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        invalidations.increment();
+        entries.clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.clear();
+                }
+            });
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount + coalesced.sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxEntries);
+        stats.put("ttlMs", ttlNanos / 1_000_000L);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("coalescedLoads", coalesced.sum());
+        stats.put("hitRate", lookups > 0 ? (double) (lookups - missCount) / lookups : 0.0);
+        stats.put("avgLoadMs", missCount > 0 ? loadNanos.sum() / 1_000_000.0 / missCount : 0.0);
+        stats.put("maxLoadMs", maxLoadNanos.get() / 1_000_000.0);
+        stats.put("invalidations", invalidations.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    private DashboardDto load(Long userId, CompletableFuture<Entry> future, Supplier<DashboardDto> loader) {
+        long start = System.nanoTime();
+        try {
+            DashboardDto dashboard = loader.get();
+            future.complete(new Entry(dashboard, System.nanoTime()));
+            return dashboard;
+        } catch (RuntimeException e) {
+            // Waiters see the same failure; the next request retries
+            entries.remove(userId, future);
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            loadNanos.add(elapsed);
+            maxLoadNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        int before = entries.size();
+        entries.values().removeIf(future -> future.isDone() && isExpired(entryOf(future), now));
+
+        // Still full of live entries: drop an arbitrary slice rather than grow without bound
+        Iterator<CompletableFuture<Entry>> it = entries.values().iterator();
+        int toRemove = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        while (toRemove > 0 && it.hasNext()) {
+            if (it.next().isDone()) {
+                it.remove();
+                toRemove--;
+            }
+        }
+        evictions.add(Math.max(0, before - entries.size()));
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return entry == null || now - entry.loadedAtNanos >= ttlNanos;
+    }
+
+    private static Entry entryOf(CompletableFuture<Entry> future) {
+        return future.isCompletedExceptionally() ? null : future.getNow(null);
+    }
+
+    private static Entry await(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Entry {
+        final DashboardDto dashboard;
+        final long loadedAtNanos;
+
+        Entry(DashboardDto dashboard, long loadedAtNanos) {
+            this.dashboard = dashboard;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+    }
+}
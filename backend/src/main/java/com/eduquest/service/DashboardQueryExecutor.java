@@ -0,0 +1,142 @@
+package com.eduquest.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Small bounded pool that runs independent dashboard queries side by side, each
+ * in its own transaction on its own pooled connection. Callers check
+ * {@link #shouldRunParallel} first and build sequentially when it says no, so a
+ * busy pool or a starved connection pool degrades to the old behaviour instead of
+ * queueing behind itself. A yes reserves one pool slot per query, so a build that
+ * starts in parallel is never rejected halfway through submitting.
+ */
+@Component
+public class DashboardQueryExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardQueryExecutor.class);
+
+    @Value("${dashboard.parallel.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final ThreadPoolExecutor executor;
+
+    // One permit per running or queued query; reserved up front, released when each query completes
+    private final Semaphore slots;
+
+    private final LongAdder parallelBuilds = new LongAdder();
+    private final LongAdder sequentialBuilds = new LongAdder();
+    private final LongAdder pressureFallbacks = new LongAdder();
+
+    public DashboardQueryExecutor(@Value("${dashboard.parallel.threads:6}") int threads,
+                                  @Value("${dashboard.parallel.queue-capacity:24}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-query-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.slots = new Semaphore(threads + queueCapacity);
+    }
+
+    /**
+     * On true, {@code tasks} slots are reserved for the caller, which must then
+     * submit exactly that many queries.
+     *
+     * @param tasks number of queries the caller is about to submit
+     */
+    public boolean shouldRunParallel(int tasks) {
+        if (!enabled) {
+            sequentialBuilds.increment();
+            return false;
+        }
+        if (connectionPoolUnderPressure() || !slots.tryAcquire(tasks)) {
+            pressureFallbacks.increment();
+            sequentialBuilds.increment();
+            return false;
+        }
+        parallelBuilds.increment();
+        return true;
+    }
+
+    public void recordSequentialBuild() {
+        sequentialBuilds.increment();
+    }
+
+    /**
+     * Runs one query in a slot reserved by {@link #shouldRunParallel}. Only throws
+     * RejectedExecutionException once the pool is shutting down.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        CompletableFuture<T> future;
+        try {
+            future = CompletableFuture.supplyAsync(query, executor);
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            throw e;
+        }
+        // Also fires if the caller cancels the query before it starts
+        future.whenComplete((result, error) -> slots.release());
+        return future;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("poolSize", executor.getMaximumPoolSize());
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("freeSlots", slots.availablePermits());
+        stats.put("parallelBuilds", parallelBuilds.sum());
+        stats.put("sequentialBuilds", sequentialBuilds.sum());
+        stats.put("pressureFallbacks", pressureFallbacks.sum());
+        return stats;
+    }
+
+    private boolean connectionPoolUnderPressure() {
+        HikariPoolMXBean pool = hikariPool();
+        return pool != null && pool.getThreadsAwaitingConnection() > 0;
+    }
+
+    private HikariPoolMXBean hikariPool() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            }
+        } catch (SQLException e) {
+            logger.debug("Could not inspect connection pool: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
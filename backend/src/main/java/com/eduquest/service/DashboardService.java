@@ -3,20 +3,29 @@ package com.eduquest.service;
 import com.eduquest.dto.AchievementDto;
 import com.eduquest.dto.DashboardDto;
 import com.eduquest.dto.EnrollmentDto;
-import com.eduquest.entity.Achievement;
-import com.eduquest.entity.Enrollment;
 import com.eduquest.entity.User;
+import com.eduquest.entity.UserDashboardSummary;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class DashboardService {
     
+    private static final int RECENT_ITEMS = 5;
+    
     @Autowired
     private UserService userService;
     
@@ -26,74 +35,122 @@ public class DashboardService {
     @Autowired
     private AchievementService achievementService;
     
+    @Autowired
+    private DashboardSummaryService dashboardSummaryService;
+    
+    @Autowired
+    private DashboardCache dashboardCache;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private DashboardQueryExecutor queryExecutor;
+    
+    // Cache hits return without opening a transaction; misses build inside one
+    @Transactional(propagation = Propagation.SUPPORTS)
     public DashboardDto getUserDashboard(Long userId) {
-        User user = userService.getUserById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
-        
-        DashboardDto dashboard = new DashboardDto(userId, user.getName());
-        
-        // Get user enrollments
-        List<Enrollment> enrollments = enrollmentService.getUserEnrollmentsById(userId);
-        
-        // Calculate statistics
-        int totalEnrolled = enrollments.size();
-        int completed = (int) enrollments.stream()
-                .filter(e -> e.getCompletionStatus() == Enrollment.CompletionStatus.COMPLETED)
-                .count();
-        int inProgress = (int) enrollments.stream()
-                .filter(e -> e.getCompletionStatus() == Enrollment.CompletionStatus.IN_PROGRESS)
-                .count();
-        
-        // Calculate total hours (sum of completed course durations)
-        int totalHours = enrollments.stream()
-                .filter(e -> e.getCompletionStatus() == Enrollment.CompletionStatus.COMPLETED)
-                .mapToInt(e -> e.getCourse().getDuration() != null ? e.getCourse().getDuration() : 0)
-                .sum();
-        
-        // Get current streak
-        Integer currentStreak = user.getCurrentStreak() != null ? user.getCurrentStreak() : 0;
-        
-        // Get total achievements
-        Long totalAchievements = achievementService.getUserAchievementCount(userId);
+        return dashboardCache.get(userId, () -> loadDashboard(userId, null));
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public DashboardDto getUserDashboard(User user) {
+        return dashboardCache.get(user.getId(), () -> loadDashboard(user.getId(), user));
+    }
+    
+    private DashboardDto loadDashboard(Long userId, User knownUser) {
+        // Worker threads cannot see a caller's uncommitted writes, so only fan out outside a transaction
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            queryExecutor.recordSequentialBuild();
+        } else if (queryExecutor.shouldRunParallel(knownUser != null ? 3 : 4)) {
+            try {
+                return loadInParallel(userId, knownUser);
+            } catch (RejectedExecutionException e) {
+                queryExecutor.recordSequentialBuild();
+            }
+        }
         
-        // Get recent enrollments (last 5)
-        List<Enrollment> recentEnrollments = enrollments.stream()
-                .sorted((e1, e2) -> e2.getCreatedAt().compareTo(e1.getCreatedAt()))
-                .limit(5)
-                .collect(Collectors.toList());
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            User user = knownUser != null ? knownUser : findUser(userId);
+            return assemble(user,
+                    dashboardSummaryService.getSummary(userId),
+                    enrollmentService.getRecentEnrollmentDtos(userId, RECENT_ITEMS),
+                    getRecentAchievementDtos(userId));
+        });
+    }
+    
+    /**
+     * Issues the independent reads concurrently, each in its own transaction on its
+     * own connection, so latency is roughly that of the slowest query.
+     */
+    private DashboardDto loadInParallel(Long userId, User knownUser) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        // The summary read may backfill a missing row, so it gets a writable transaction
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
         
-        // Get recent achievements (last 5)
-        List<Achievement> recentAchievements = achievementService.getUserAchievementsById(userId).stream()
-                .limit(5)
+        List<CompletableFuture<?>> submitted = new ArrayList<>();
+        try {
+            CompletableFuture<User> user = knownUser != null
+                    ? CompletableFuture.completedFuture(knownUser)
+                    : track(submitted, queryExecutor.submit(() -> readOnly.execute(status -> findUser(userId))));
+            CompletableFuture<UserDashboardSummary> summary = track(submitted, queryExecutor.submit(
+                    () -> readWrite.execute(status -> dashboardSummaryService.getSummary(userId))));
+            CompletableFuture<List<EnrollmentDto>> recentEnrollments = track(submitted, queryExecutor.submit(
+                    () -> readOnly.execute(status -> enrollmentService.getRecentEnrollmentDtos(userId, RECENT_ITEMS))));
+            CompletableFuture<List<AchievementDto>> recentAchievements = track(submitted, queryExecutor.submit(
+                    () -> readOnly.execute(status -> getRecentAchievementDtos(userId))));
+            
+            return assemble(join(user), join(summary), join(recentEnrollments), join(recentAchievements));
+        } catch (RejectedExecutionException e) {
+            // Slots are reserved up front, so this only happens on shutdown; don't run the queries twice
+            submitted.forEach(future -> future.cancel(false));
+            throw e;
+        }
+    }
+    
+    private static <T> CompletableFuture<T> track(List<CompletableFuture<?>> submitted, CompletableFuture<T> future) {
+        submitted.add(future);
+        return future;
+    }
+    
+    private User findUser(Long userId) {
+        return userService.getUserById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+    }
+    
+    private List<AchievementDto> getRecentAchievementDtos(Long userId) {
+        return achievementService.getRecentAchievements(userId, RECENT_ITEMS).stream()
+                .map(AchievementDto::new)
                 .collect(Collectors.toList());
+    }
+    
+    private DashboardDto assemble(User user, UserDashboardSummary summary,
+                                  List<EnrollmentDto> recentEnrollments, List<AchievementDto> recentAchievements) {
+        DashboardDto dashboard = new DashboardDto(user.getId(), user.getName());
         
-        // Set dashboard data
-        dashboard.setTotalEnrolledCourses(totalEnrolled);
-        dashboard.setCompletedCourses(completed);
-        dashboard.setInProgressCourses(inProgress);
-        dashboard.setTotalHours(totalHours);
-        dashboard.setCurrentStreak(currentStreak);
-        dashboard.setTotalAchievements(totalAchievements.intValue());
-        dashboard.setRecentEnrollments(recentEnrollments.stream()
-                .map(EnrollmentDto::new)
-                .collect(Collectors.toList()));
-        dashboard.setRecentAchievements(recentAchievements.stream()
-                .map(AchievementDto::new)
-                .collect(Collectors.toList()));
+        // Counters come from the maintained summary row, so cost does not grow with history
+        dashboard.setTotalEnrolledCourses(summary.getEnrolledCourses());
+        dashboard.setCompletedCourses(summary.getCompletedCourses());
+        dashboard.setInProgressCourses(summary.getInProgressCourses());
+        dashboard.setTotalHours(summary.getTotalHours());
+        dashboard.setCurrentStreak(user.getCurrentStreak() != null ? user.getCurrentStreak() : 0);
+        dashboard.setTotalAchievements(summary.getAchievementCount());
+        dashboard.setRecentEnrollments(recentEnrollments);
+        dashboard.setRecentAchievements(recentAchievements);
         dashboard.setLastActivityDate(user.getLastActivityDate());
         
         return dashboard;
     }
     
-    public DashboardDto getUserDashboard(User user) {
-        return getUserDashboard(user.getId());
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 }
-
-
-
-
-
-
-
-
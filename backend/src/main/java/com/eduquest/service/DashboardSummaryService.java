@@ -0,0 +1,153 @@
+package com.eduquest.service;
+
+import com.eduquest.entity.Enrollment;
+import com.eduquest.entity.UserDashboardSummary;
+import com.eduquest.repository.AchievementRepository;
+import com.eduquest.repository.UserDashboardSummaryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Maintains the user_dashboard_summary row for each user. Write paths call in here
+ * inside their own transaction, so the counters commit or roll back with the change.
+ * A missing row (new user, or one invalidated by a bulk change) is rebuilt from the
+ * enrollment and achievement tables on first use, with an insert-if-absent so
+ * concurrent first uses never collide on the primary key.
+ */
+@Service
+@Transactional
+public class DashboardSummaryService {
+    
+    @Autowired
+    private UserDashboardSummaryRepository summaryRepository;
+    
+    @Autowired
+    private AchievementRepository achievementRepository;
+    
+    public UserDashboardSummary getSummary(Long userId) {
+        return summaryRepository.findById(userId).orElseGet(() -> {
+            insertRebuilt(userId);
+            return summaryRepository.findById(userId)
+                    .orElseThrow(() -> new IllegalStateException("Dashboard summary missing for user " + userId));
+        });
+    }
+    
+    public void enrollmentAdded(Enrollment enrollment) {
+        apply(enrollment.getUser().getId(), summary -> summary.addEnrollment(enrollment.getCompletionStatus(), 1));
+    }
+    
+    public void enrollmentRemoved(Enrollment enrollment) {
+        apply(enrollment.getUser().getId(), summary -> {
+            summary.addEnrollment(enrollment.getCompletionStatus(), -1);
+            if (enrollment.getCompletionStatus() == Enrollment.CompletionStatus.COMPLETED) {
+                summary.addHours(-durationOf(enrollment));
+            }
+        });
+    }
+    
+    public void enrollmentStatusChanged(Enrollment enrollment, Enrollment.CompletionStatus previous) {
+        if (previous == enrollment.getCompletionStatus()) {
+            return;
+        }
+        
+        apply(enrollment.getUser().getId(), summary -> moveEnrollment(summary, enrollment, previous));
+    }
+    
+    /**
+     * Status changes of several of one user's enrollments, applied under a single
+     * lock of their summary row. Each enrollment already carries its new status and
+     * maps to its previous one.
+     */
+    public void enrollmentStatusesChanged(Long userId, Map<Enrollment, Enrollment.CompletionStatus> previousStatuses) {
+        if (previousStatuses.isEmpty()) {
+            return;
+        }
+        
+        apply(userId, summary -> previousStatuses.forEach((enrollment, previous) -> moveEnrollment(summary, enrollment, previous)));
+    }
+    
+    public void achievementAwarded(Long userId) {
+        achievementsAwarded(userId, 1);
+    }
+    
+    public void achievementsAwarded(Long userId, int count) {
+        apply(userId, summary -> summary.addAchievements(count));
+    }
+    
+    /**
+     * Drops the summaries of everyone enrolled in a course whose enrollments or
+     * duration are about to change in bulk; they are rebuilt on next read.
+     */
+    public void invalidateForCourse(Long courseId) {
+        summaryRepository.deleteForCourse(courseId);
+    }
+    
+    /**
+     * Drops the summaries of users who were just enrolled in bulk; they are
+     * rebuilt on next read.
+     */
+    public void invalidateForUsers(Collection<Long> userIds) {
+        summaryRepository.deleteForUsers(userIds);
+    }
+    
+    private void apply(Long userId, Consumer<UserDashboardSummary> delta) {
+        UserDashboardSummary summary = summaryRepository.findForUpdate(userId).orElse(null);
+        if (summary == null) {
+            // The change is already flushed, so a row rebuilt here includes it
+            if (insertRebuilt(userId)) {
+                return;
+            }
+            // A concurrent first write created the row; its rebuild could not see this change
+            summary = summaryRepository.findForUpdate(userId)
+                    .orElseThrow(() -> new IllegalStateException("Dashboard summary missing for user " + userId));
+        }
+        delta.accept(summary);
+    }
+    
+    /**
+     * Inserts a rebuilt row unless one exists. A concurrent insert for the same user
+     * waits on the first one instead of failing on the primary key.
+     */
+    private boolean insertRebuilt(Long userId) {
+        UserDashboardSummary rebuilt = rebuild(userId);
+        return summaryRepository.insertIfAbsent(userId, rebuilt.getEnrolledCourses(), rebuilt.getCompletedCourses(),
+                rebuilt.getInProgressCourses(), rebuilt.getTotalHours(), rebuilt.getAchievementCount(),
+                rebuilt.getUpdatedAt()) == 1;
+    }
+    
+    private UserDashboardSummary rebuild(Long userId) {
+        Object[] row = summaryRepository.aggregateEnrollments(userId, Enrollment.CompletionStatus.COMPLETED).get(0);
+        
+        UserDashboardSummary summary = new UserDashboardSummary(userId);
+        summary.setEnrolledCourses(((Number) row[0]).intValue());
+        summary.setCompletedCourses(((Number) row[1]).intValue());
+        summary.setInProgressCourses(((Number) row[2]).intValue());
+        summary.setTotalHours(((Number) row[3]).intValue());
+        summary.setAchievementCount(achievementRepository.countByUserId(userId).intValue());
+        return summary;
+    }
+    
+    private static void moveEnrollment(UserDashboardSummary summary, Enrollment enrollment, Enrollment.CompletionStatus previous) {
+        Enrollment.CompletionStatus current = enrollment.getCompletionStatus();
+        if (previous == current) {
+            return;
+        }
+        
+        summary.moveEnrollment(previous, current);
+        if (current == Enrollment.CompletionStatus.COMPLETED) {
+            summary.addHours(durationOf(enrollment));
+        } else if (previous == Enrollment.CompletionStatus.COMPLETED) {
+            summary.addHours(-durationOf(enrollment));
+        }
+    }
+    
+    private static int durationOf(Enrollment enrollment) {
+        Integer duration = enrollment.getCourse().getDuration();
+        return duration != null ? duration : 0;
+    }
+}
@@ -0,0 +1,179 @@
+package com.eduquest.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind buffer for {@code courses.students_enrolled}, used when
+ * {@code enrollment.counter.mode=write-behind}. Committed enrollment deltas go
+ * into a striped {@link LongAdder} per course, so concurrent enrollments in one
+ * popular course never wait on each other or on its row lock. A scheduled flush
+ * applies the accumulated deltas in one JDBC batch. Adders only ever grow; the
+ * flusher remembers how much of each it has written, so a delta that lands
+ * mid-flush is simply picked up by the next one. The table lags by at most one
+ * flush interval; the in-memory indexes are updated on commit as in atomic mode.
+ */
+@Component
+public class EnrollmentCountBuffer {
+
+    public static final String MODE_ATOMIC = "atomic";
+    public static final String MODE_WRITE_BEHIND = "write-behind";
+
+    private static final Logger logger = LoggerFactory.getLogger(EnrollmentCountBuffer.class);
+
+    private static final String FLUSH_SQL =
+            "UPDATE courses SET students_enrolled = GREATEST(COALESCE(students_enrolled, 0) + ?, 0) WHERE id = ?";
+
+    @Value("${enrollment.counter.mode:atomic}")
+    private String mode;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    private final LongAdder buffered = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+
+    public boolean isEnabled() {
+        return MODE_WRITE_BEHIND.equals(mode);
+    }
+
+    /**
+     * Buffers {@code delta} for the course once the surrounding transaction
+     * commits; a rolled-back enrollment is never counted.
+     */
+    public void add(Long courseId, int delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            addNow(courseId, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                addNow(courseId, delta);
+            }
+        });
+    }
+
+    private void addNow(Long courseId, int delta) {
+        counters.computeIfAbsent(courseId, id -> new Counter()).total.add(delta);
+        buffered.increment();
+    }
+
+    public void forget(Long courseId) {
+        counters.remove(courseId);
+    }
+
+    /**
+     * Writes every course's unflushed delta in one batch and one transaction. On
+     * failure nothing is marked as written, so the next flush retries it all.
+     */
+    @Scheduled(fixedDelayString = "${enrollment.counter.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        List<Long> courseIds = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>();
+        List<Long> sums = new ArrayList<>();
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            long sum = counter.total.sum();
+            if (sum != counter.flushed) {
+                courseIds.add(entry.getKey());
+                batch.add(new Object[] {sum - counter.flushed, entry.getKey()});
+                sums.add(sum);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(
+                    status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+        } catch (RuntimeException e) {
+            failedFlushes.increment();
+            logger.warn("Flushing {} enrollment counts failed, will retry", batch.size(), e);
+            return;
+        }
+
+        for (int i = 0; i < courseIds.size(); i++) {
+            Counter counter = counters.get(courseIds.get(i));
+            if (counter != null) {
+                counter.flushed = sums.get(i);
+            }
+        }
+        flushes.increment();
+        flushedRows.add(batch.size());
+    }
+
+    /**
+     * Runs {@code read} against {@code courses.students_enrolled} with flushes held
+     * off, then adds every course's unflushed delta to the counts it returned. The
+     * result is the current count rather than one up to a flush interval behind.
+     */
+    public synchronized Map<Long, Integer> withUnflushed(Supplier<Map<Long, Integer>> read) {
+        Map<Long, Integer> counts = read.get();
+        if (!isEnabled()) {
+            return counts;
+        }
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            long pending = counter.total.sum() - counter.flushed;
+            if (pending != 0) {
+                counts.computeIfPresent(entry.getKey(), (courseId, enrolled) -> (int) Math.max(0, enrolled + pending));
+            }
+        }
+        return counts;
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        if (isEnabled()) {
+            flush();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long pending = 0;
+        for (Counter counter : counters.values()) {
+            pending += Math.abs(counter.total.sum() - counter.flushed);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", isEnabled() ? MODE_WRITE_BEHIND : MODE_ATOMIC);
+        stats.put("bufferedDeltas", buffered.sum());
+        stats.put("pendingDeltas", pending);
+        stats.put("flushes", flushes.sum());
+        stats.put("flushedRows", flushedRows.sum());
+        stats.put("failedFlushes", failedFlushes.sum());
+        return stats;
+    }
+
+    private static final class Counter {
+        final LongAdder total = new LongAdder();
+        // Only read and written by flush(), which is synchronized
+        long flushed;
+    }
+}
@@ -1,21 +1,58 @@
 package com.eduquest.service;
 
+import com.eduquest.dto.CohortEnrollmentResultDto;
+import com.eduquest.dto.EnrollmentDto;
+import com.eduquest.dto.ProgressBatchDto;
+import com.eduquest.dto.ProgressResultDto;
 import com.eduquest.dto.ProgressUpdateDto;
 import com.eduquest.entity.Course;
 import com.eduquest.entity.Enrollment;
 import com.eduquest.entity.User;
 import com.eduquest.repository.EnrollmentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
 public class EnrollmentService {
     
+    // Set-based insert-if-absent for a cohort; the user_id of each inserted row comes back as a generated key
+    private static final String INSERT_COHORT_SQL =
+            "INSERT INTO enrollments (user_id, course_id, progress, completion_status, created_at, updated_at) " +
+            "SELECT u.id, ?, 0, 'IN_PROGRESS', ?, ? FROM users u WHERE u.id IN (%s) ON CONFLICT DO NOTHING";
+    
+    private static final String ADVANCE_PROGRESS_SQL =
+            "UPDATE enrollments SET progress = ?, completion_status = ?, updated_at = ? " +
+            "WHERE user_id = ? AND course_id = ? AND progress < ? AND completion_status = ?";
+    
+    private static final List<Enrollment.CompletionStatus> BELOW_COMPLETION =
+            List.of(Enrollment.CompletionStatus.NOT_STARTED, Enrollment.CompletionStatus.IN_PROGRESS);
+    
+    // Keeps IN lists well below driver bind-parameter limits
+    private static final int COHORT_CHUNK_SIZE = 1000;
+    
     @Autowired
     private EnrollmentRepository enrollmentRepository;
     
@@ -26,62 +63,318 @@ public class EnrollmentService {
     private UserService userService;
     
     @Autowired
-    private AchievementService achievementService;
+    private AchievementOutbox achievementOutbox;
+    
+    @Autowired
+    private DashboardSummaryService dashboardSummaryService;
+    
+    @Autowired
+    private DashboardCache dashboardCache;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${enrollment.progress-batch.max-backdate-hours:72}")
+    private long maxBackdateHours;
+    
+    @Value("${enrollment.cohort.max-size:10000}")
+    private int maxCohortSize;
     
     public Enrollment enrollUserInCourse(Long courseId, User user) {
+        return enroll(courseId, user.getId(), user.getRole());
+    }
+    
+    /**
+     * Enrolls the user unless they already are. Instead of checking first, the
+     * insert relies on the (user_id, course_id) unique constraint, so concurrent
+     * requests cannot both pass a check and then collide. A duplicate returns the
+     * existing enrollment unchanged; only a new one touches the dashboard summary,
+     * the streak and the course count. A missing course or user inserts nothing,
+     * and only then is it looked up which one it was.
+     */
+    public Enrollment enroll(Long courseId, Long userId, User.Role role) {
         // Check if user is a student
-        if (user.getRole() != User.Role.STUDENT) {
+        if (role != User.Role.STUDENT) {
             throw new RuntimeException("Only students can enroll in courses");
         }
         
-        // Get course
-        Course course = courseService.getCourseById(courseId)
-                .orElseThrow(() -> new RuntimeException("Course not found with id: " + courseId));
+        int inserted;
+        try {
+            inserted = enrollmentRepository.insertIfAbsent(userId, courseId, LocalDateTime.now());
+        } catch (DataIntegrityViolationException e) {
+            // Duplicates and missing rows insert nothing, so the course or user was deleted while this ran
+            throw new RuntimeException("Could not enroll user " + userId + " in course " + courseId
+                    + ": it was deleted meanwhile");
+        }
         
-        // Check if already enrolled
-        if (enrollmentRepository.existsByUserAndCourse(user, course)) {
-            throw new RuntimeException("User is already enrolled in this course");
+        Enrollment enrollment = enrollmentRepository.findWithUserAndCourse(userId, courseId)
+                .orElseThrow(() -> new RuntimeException(courseService.getCourseById(courseId).isEmpty()
+                        ? "Course not found with id: " + courseId
+                        : "User not found with id: " + userId));
+        if (inserted == 0) {
+            return enrollment;
         }
         
-        // Create enrollment
-        Enrollment enrollment = new Enrollment(user, course);
-        enrollment = enrollmentRepository.save(enrollment);
-        
-        // Update course student count
-        courseService.incrementStudentsEnrolled(courseId);
+        dashboardSummaryService.enrollmentAdded(enrollment);
+        dashboardCache.invalidate(userId);
         
         // Update user streak
-        achievementService.updateUserStreak(user);
+        achievementOutbox.activity(enrollment.getUser());
+        
+        // Update course student count last: the course row stays locked until commit
+        courseService.incrementStudentsEnrolled(courseId);
         
         return enrollment;
     }
     
-    public Enrollment updateProgress(Long courseId, ProgressUpdateDto progressDto, User user) {
-        // Get course
+    public int getMaxCohortSize() {
+        return maxCohortSize;
+    }
+    
+    /**
+     * Enrolls a whole class in a course at once. Per chunk of ids this costs one
+     * query for the students not enrolled yet, one set-based insert-if-absent that
+     * returns the ids it actually inserted, and one streak UPDATE (or one batch of
+     * outbox events) for those ids only, so a student enrolled concurrently by
+     * another request is not counted twice. The course count is adjusted once, by
+     * the number of rows inserted. Ids that are already enrolled, are not students
+     * or do not exist are skipped.
+     */
+    public CohortEnrollmentResultDto enrollCohort(Long courseId, Collection<Long> userIds, Long actorId, User.Role actorRole) {
         Course course = courseService.getCourseById(courseId)
                 .orElseThrow(() -> new RuntimeException("Course not found with id: " + courseId));
         
-        // Get enrollment
-        Enrollment enrollment = enrollmentRepository.findByUserAndCourse(user, course)
-                .orElseThrow(() -> new RuntimeException("User is not enrolled in this course"));
+        // Check if user is the instructor or admin
+        if (!course.getInstructor().getId().equals(actorId) && actorRole != User.Role.ADMIN) {
+            throw new RuntimeException("Only the course instructor or admin can enroll a cohort in this course");
+        }
+        
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(userIds));
+        if (distinctIds.isEmpty()) {
+            throw new RuntimeException("A cohort needs at least one user id");
+        }
+        if (distinctIds.size() > maxCohortSize) {
+            throw new RuntimeException("A cohort can have at most " + maxCohortSize + " users");
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        int enrolled = 0;
+        for (int from = 0; from < distinctIds.size(); from += COHORT_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + COHORT_CHUNK_SIZE, distinctIds.size()));
+            List<Long> newStudentIds = enrollmentRepository.findUnenrolledIds(courseId, chunk, User.Role.STUDENT);
+            if (newStudentIds.isEmpty()) {
+                continue;
+            }
+            
+            List<Long> insertedIds;
+            try {
+                insertedIds = insertCohort(courseId, newStudentIds, now);
+            } catch (DataIntegrityViolationException e) {
+                // Duplicates are absorbed by the insert, so the course was deleted meanwhile
+                throw new RuntimeException("Course not found with id: " + courseId);
+            }
+            if (insertedIds.isEmpty()) {
+                continue;
+            }
+            enrolled += insertedIds.size();
+            dashboardSummaryService.invalidateForUsers(insertedIds);
+            insertedIds.forEach(dashboardCache::invalidate);
+            
+            // Update user streaks
+            achievementOutbox.activity(insertedIds);
+        }
+        
+        // Update course student count last: the course row stays locked until commit
+        if (enrolled > 0) {
+            courseService.changeStudentsEnrolled(courseId, enrolled);
+        }
+        
+        return new CohortEnrollmentResultDto(courseId, distinctIds.size(), enrolled);
+    }
+    
+    // Ids of the users actually enrolled; rows that already existed are skipped by the insert and not returned
+    private List<Long> insertCohort(Long courseId, List<Long> userIds, LocalDateTime now) {
+        String sql = String.format(INSERT_COHORT_SQL, String.join(", ", Collections.nCopies(userIds.size(), "?")));
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, new String[] {"user_id"});
+            statement.setLong(1, courseId);
+            statement.setObject(2, now);
+            statement.setObject(3, now);
+            for (int i = 0; i < userIds.size(); i++) {
+                statement.setLong(i + 4, userIds.get(i));
+            }
+            return statement;
+        }, keys);
         
-        // Update progress
-        enrollment.updateProgress(progressDto.getProgress());
-        enrollment = enrollmentRepository.save(enrollment);
+        List<Long> inserted = new ArrayList<>(keys.getKeyList().size());
+        for (Map<String, Object> row : keys.getKeyList()) {
+            // Drivers differ in how they case the column label
+            inserted.add(((Number) row.values().iterator().next()).longValue());
+        }
+        return inserted;
+    }
+    
+    public ProgressResultDto updateProgress(Long courseId, ProgressUpdateDto progressDto, User user) {
+        return updateProgress(courseId, progressDto.getProgress(), user.getId());
+    }
+    
+    /**
+     * Records progress with max-wins semantics: a conditional UPDATE that only
+     * moves progress forward, so a late report from another device can never
+     * overwrite a higher value. Its row count says whether anything changed, and a
+     * report that applies below 100 costs that UPDATE plus the streak event, with
+     * no read. The row is read only for a stale report (to tell it from one for a
+     * course the user is not enrolled in) or when this call is the one that
+     * reached 100, which then runs the completion achievements.
+     */
+    public ProgressResultDto updateProgress(Long courseId, int progress, Long userId) {
+        Enrollment.CompletionStatus status = Enrollment.statusFor(progress);
+        LocalDateTime now = LocalDateTime.now();
+        
+        // Rows below 100 are IN_PROGRESS, except NOT_STARTED rows written before progress became monotonic
+        int updated = enrollmentRepository.advanceProgress(userId, courseId, progress, status, BELOW_COMPLETION, now);
+        
+        if (updated == 0) {
+            Enrollment enrollment = enrollmentRepository.findWithUserAndCourse(userId, courseId)
+                    .orElseThrow(() -> new RuntimeException("User is not enrolled in this course"));
+            
+            // Update user streak; a stale report is still activity
+            achievementOutbox.activity(userId);
+            return new ProgressResultDto(courseId, progress, ProgressResultDto.Outcome.STALE, enrollment);
+        }
         
         // Update user streak
-        achievementService.updateUserStreak(user);
+        achievementOutbox.activity(userId);
+        dashboardCache.invalidate(userId);
         
-        // Check for achievements
-        if (enrollment.getProgress() == 100) {
-            // Course completed
-            achievementService.checkAndAwardCourseCompletionAchievement(user, course);
-            achievementService.checkAndAwardPerfectScoreAchievement(user, course);
-            achievementService.checkAndAwardEarlyBirdAchievement(user, course);
-            achievementService.checkAndAwardDedicatedLearnerAchievement(user);
+        if (status != Enrollment.CompletionStatus.COMPLETED) {
+            // Still below 100: the dashboard summary counts NOT_STARTED and IN_PROGRESS alike
+            return new ProgressResultDto(courseId, progress, ProgressResultDto.Outcome.APPLIED, progress, status);
         }
         
-        return enrollment;
+        Enrollment enrollment = enrollmentRepository.findWithUserAndCourse(userId, courseId)
+                .orElseThrow(() -> new RuntimeException("User is not enrolled in this course"));
+        // Keep an already-managed copy in step with the row the UPDATE wrote
+        enrollment.setProgress(progress);
+        dashboardSummaryService.enrollmentStatusChanged(enrollment, Enrollment.CompletionStatus.IN_PROGRESS);
+        
+        // Course completed
+        achievementOutbox.coursesCompleted(enrollment.getUser(), List.of(enrollment.getCourse()));
+        return new ProgressResultDto(courseId, progress, ProgressResultDto.Outcome.APPLIED, enrollment);
+    }
+    
+    /**
+     * Applies progress replayed by an offline client in one transaction. Entries
+     * are collapsed to the highest progress per course, and the ones that raise the
+     * stored value are written in a single JDBC batch with the same max-wins guard
+     * as {@link #updateProgress(Long, int, Long)}. The streak is updated once from
+     * the earliest and latest client timestamps, and achievements are evaluated
+     * once per newly completed course. Returns one result per entry, in order.
+     */
+    public List<ProgressResultDto> updateProgressBatch(Long userId, List<ProgressBatchDto.Entry> entries) {
+        LocalDateTime now = LocalDateTime.now();
+        
+        // Winning entry per course: the highest progress, the first one on ties
+        Map<Long, Integer> winners = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            ProgressBatchDto.Entry entry = entries.get(i);
+            Integer best = winners.get(entry.getCourseId());
+            if (best == null || entry.getProgress() > entries.get(best).getProgress()) {
+                winners.put(entry.getCourseId(), i);
+            }
+        }
+        
+        Map<Long, Enrollment> enrollments = new HashMap<>();
+        for (Enrollment enrollment : enrollmentRepository.findForProgressBatch(userId, winners.keySet())) {
+            enrollments.put(enrollment.getCourse().getId(), enrollment);
+        }
+        
+        // Only rows that look behind are sent; the guard settles races with other writers
+        Map<Enrollment, Enrollment.CompletionStatus> advanced = new LinkedHashMap<>();
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, Integer> winner : winners.entrySet()) {
+            Enrollment enrollment = enrollments.get(winner.getKey());
+            int progress = entries.get(winner.getValue()).getProgress();
+            if (enrollment != null && enrollment.getProgress() < progress) {
+                advanced.put(enrollment, enrollment.getCompletionStatus());
+                batch.add(new Object[] {progress, Enrollment.statusFor(progress).name(), now,
+                        userId, winner.getKey(), progress, enrollment.getCompletionStatus().name()});
+            }
+        }
+        
+        if (!batch.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(ADVANCE_PROGRESS_SQL, batch);
+            Iterator<Enrollment> rows = advanced.keySet().iterator();
+            for (int i = 0; rows.hasNext(); i++) {
+                Enrollment enrollment = rows.next();
+                // SUCCESS_NO_INFO (-2) still means the statement ran
+                if (counts[i] != 0) {
+                    enrollment.setProgress((Integer) batch.get(i)[0]);
+                } else {
+                    rows.remove();
+                }
+            }
+        }
+        
+        if (!advanced.isEmpty()) {
+            dashboardSummaryService.enrollmentStatusesChanged(userId, advanced);
+            dashboardCache.invalidate(userId);
+        }
+        
+        if (!enrollments.isEmpty()) {
+            User user = userService.getUserById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+            
+            // Update user streak once, from the span of activity the batch covers
+            LocalDateTime firstActivity = null;
+            LocalDateTime lastActivity = null;
+            for (ProgressBatchDto.Entry entry : entries) {
+                if (enrollments.containsKey(entry.getCourseId())) {
+                    LocalDateTime at = activityTime(entry, now);
+                    firstActivity = firstActivity == null || at.isBefore(firstActivity) ? at : firstActivity;
+                    lastActivity = lastActivity == null || at.isAfter(lastActivity) ? at : lastActivity;
+                }
+            }
+            achievementOutbox.activity(user, firstActivity, lastActivity);
+            
+            // Check for achievements; rows below 100 were never completed, so these were completed just now
+            List<Course> completedCourses = new ArrayList<>();
+            for (Enrollment enrollment : advanced.keySet()) {
+                if (enrollment.getCompletionStatus() == Enrollment.CompletionStatus.COMPLETED) {
+                    completedCourses.add(enrollment.getCourse());
+                }
+            }
+            achievementOutbox.coursesCompleted(user, completedCourses);
+        }
+        
+        List<ProgressResultDto> results = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            ProgressBatchDto.Entry entry = entries.get(i);
+            Enrollment enrollment = enrollments.get(entry.getCourseId());
+            ProgressResultDto.Outcome outcome;
+            if (enrollment == null) {
+                outcome = ProgressResultDto.Outcome.NOT_ENROLLED;
+            } else if (winners.get(entry.getCourseId()) != i) {
+                outcome = ProgressResultDto.Outcome.SUPERSEDED;
+            } else if (advanced.containsKey(enrollment)) {
+                outcome = ProgressResultDto.Outcome.APPLIED;
+            } else {
+                outcome = ProgressResultDto.Outcome.STALE;
+            }
+            results.add(new ProgressResultDto(entry.getCourseId(), entry.getProgress(), outcome, enrollment));
+        }
+        return results;
+    }
+    
+    // Client clocks are trusted only within the backdate window, and never past now
+    private LocalDateTime activityTime(ProgressBatchDto.Entry entry, LocalDateTime now) {
+        LocalDateTime at = entry.getClientTimestamp();
+        if (at == null || at.isAfter(now)) {
+            return now;
+        }
+        LocalDateTime earliest = now.minusHours(maxBackdateHours);
+        return at.isBefore(earliest) ? earliest : at;
     }
     
     public List<Enrollment> getUserEnrollments(User user) {
@@ -96,6 +389,23 @@ public class EnrollmentService {
         return enrollmentRepository.findByCourseId(courseId);
     }
     
+    @Transactional(readOnly = true)
+    public void streamCourseRoster(Long courseId, Consumer<EnrollmentDto> consumer) {
+        try (Stream<EnrollmentDto> rows = enrollmentRepository.streamRosterByCourseId(courseId)) {
+            rows.forEach(consumer);
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public List<EnrollmentDto> getUserEnrollmentDtos(Long userId) {
+        return enrollmentRepository.findDtosByUserId(userId);
+    }
+    
+    @Transactional(readOnly = true)
+    public List<EnrollmentDto> getRecentEnrollmentDtos(Long userId, int limit) {
+        return enrollmentRepository.findRecentDtosByUserId(userId, PageRequest.of(0, limit));
+    }
+    
     public Optional<Enrollment> getEnrollmentByUserAndCourse(User user, Course course) {
         return enrollmentRepository.findByUserAndCourse(user, course);
     }
@@ -124,6 +434,8 @@ public class EnrollmentService {
                 .orElseThrow(() -> new RuntimeException("User is not enrolled in this course"));
         
         enrollmentRepository.delete(enrollment);
+        dashboardSummaryService.enrollmentRemoved(enrollment);
+        dashboardCache.invalidate(user.getId());
         
         // Update course student count
         courseService.decrementStudentsEnrolled(courseId);
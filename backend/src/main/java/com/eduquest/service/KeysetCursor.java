@@ -0,0 +1,70 @@
+package com.eduquest.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque position in a keyset-paginated listing: the sort key of the last row
+ * returned plus its id as a tie-breaker. Clients only ever see the encoded form.
+ */
+public final class KeysetCursor {
+    
+    private final String key;
+    private final Long id;
+    
+    private KeysetCursor(String key, Long id) {
+        this.key = key;
+        this.id = id;
+    }
+    
+    public static String encode(Object key, Long id) {
+        String raw = (key != null ? key.toString() : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decodes a cursor, or returns null for the first page.
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new KeysetCursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+    
+    public Long getId() {
+        return id;
+    }
+    
+    public Integer getKeyAsInt() {
+        try {
+            return Integer.valueOf(key);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor key: " + key);
+        }
+    }
+    
+    public Double getKeyAsDouble() {
+        try {
+            return Double.valueOf(key);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor key: " + key);
+        }
+    }
+    
+    public LocalDateTime getKeyAsDateTime() {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor key: " + key);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.eduquest.service;
+
+import com.eduquest.dto.CourseDto;
+import com.eduquest.dto.CursorPageDto;
+import com.eduquest.repository.CourseRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory leaderboard behind {@code /courses/popular}. Every course's
+ * enrollment count is tracked, and the K most enrolled are kept ordered the same
+ * way as the database query (count desc, id desc), so pages inside the top K are
+ * served without touching the database. Counts move with the enrollment deltas
+ * CourseIndexer forwards after each commit. A read that finds the counts older
+ * than {@code popular-courses.refresh-after-ms} is still served as is, and
+ * triggers one background reload of the counts from the database to correct any
+ * drift.
+ */
+@Component
+public class PopularCourses implements CourseIndex {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PopularCourses.class);
+    
+    private static final Comparator<Entry> ORDER = Comparator.<Entry>comparingInt(entry -> entry.enrolled)
+            .thenComparingLong(entry -> entry.id)
+            .reversed();
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
+    @Autowired
+    private EnrollmentCountBuffer enrollmentCountBuffer;
+    
+    private final int topK;
+    private final long refreshAfterNanos;
+    
+    // Every course by id; the K best of them are also in top
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> top = new TreeSet<>(ORDER);
+    private boolean seeded;
+    private long refreshedAtNanos;
+    
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "popular-courses-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final LongAdder servedPages = new LongAdder();
+    private final LongAdder fallbackPages = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder corrections = new LongAdder();
+    
+    public PopularCourses(@Value("${popular-courses.top-k:100}") int topK,
+                          @Value("${popular-courses.refresh-after-ms:60000}") long refreshAfterMs) {
+        this.topK = Math.max(1, topK);
+        this.refreshAfterNanos = TimeUnit.MILLISECONDS.toNanos(refreshAfterMs);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+    
+    @Override
+    public synchronized void rebuild(Collection<CourseDto> courses) {
+        entries.clear();
+        for (CourseDto course : courses) {
+            Entry entry = new Entry(course);
+            entries.put(entry.id, entry);
+        }
+        recomputeTop();
+        seeded = true;
+        refreshedAtNanos = System.nanoTime();
+    }
+    
+    @Override
+    public synchronized void upsert(CourseDto course) {
+        Entry previous = entries.get(course.getId());
+        if (previous != null && top.remove(previous)) {
+            entries.remove(previous.id);
+            refill();
+        }
+        Entry entry = new Entry(course);
+        entries.put(entry.id, entry);
+        offer(entry);
+    }
+    
+    @Override
+    public synchronized void remove(Long courseId) {
+        Entry entry = entries.remove(courseId);
+        if (entry != null && top.remove(entry)) {
+            refill();
+        }
+    }
+    
+    @Override
+    public synchronized void enrollmentChanged(Long courseId, int delta) {
+        Entry entry = entries.get(courseId);
+        if (entry == null) {
+            return;
+        }
+        boolean wasTop = top.remove(entry);
+        entry.enrolled = Math.max(0, entry.enrolled + delta);
+        if (wasTop) {
+            top.add(entry);
+            // Only the last member can have dropped below a course outside the top K
+            if (delta < 0 && top.last() == entry) {
+                top.remove(entry);
+                refill();
+            }
+        } else {
+            offer(entry);
+        }
+    }
+    
+    /**
+     * The requested page of popular courses, or null when it reaches past the top
+     * K (or the leaderboard is not seeded yet) and has to come from the database.
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public CursorPageDto<CourseDto> findPage(String cursor, int limit) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int size = CourseService.clampPageSize(limit);
+        CursorPageDto<CourseDto> page;
+        synchronized (this) {
+            page = seeded ? pageFromTop(after, size) : null;
+        }
+        if (page == null) {
+            fallbackPages.increment();
+            return null;
+        }
+        servedPages.increment();
+        refreshIfStale();
+        return page;
+    }
+    
+    private CursorPageDto<CourseDto> pageFromTop(KeysetCursor after, int size) {
+        Iterable<Entry> candidates = after == null ? top : top.tailSet(new Entry(after.getId(), after.getKeyAsInt()), false);
+        List<Entry> window = new ArrayList<>(size + 1);
+        for (Entry entry : candidates) {
+            window.add(entry);
+            if (window.size() > size) {
+                break;
+            }
+        }
+        
+        if (window.size() <= size) {
+            // The page ends inside the top K; that is only the true end if every course is in it
+            if (top.size() < entries.size()) {
+                return null;
+            }
+            return new CursorPageDto<>(toDtos(window), null, size);
+        }
+        List<Entry> items = window.subList(0, size);
+        Entry last = items.get(size - 1);
+        return new CursorPageDto<>(toDtos(items), KeysetCursor.encode(last.enrolled, last.id), size);
+    }
+    
+    private void refreshIfStale() {
+        boolean stale;
+        synchronized (this) {
+            stale = System.nanoTime() - refreshedAtNanos > refreshAfterNanos;
+        }
+        if (stale && refreshing.compareAndSet(false, true)) {
+            refresher.execute(() -> {
+                try {
+                    refresh();
+                } catch (RuntimeException e) {
+                    logger.warn("Refreshing popular courses failed", e);
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        }
+    }
+    
+    /**
+     * Reloads every course's enrollment count, including write-behind deltas not
+     * yet flushed to the table. A delta committed while the query runs may be
+     * counted twice or not at all; the next refresh corrects it.
+     */
+    void refresh() {
+        Map<Long, Integer> counts = enrollmentCountBuffer.withUnflushed(this::loadCounts);
+        synchronized (this) {
+            int corrected = 0;
+            for (Map.Entry<Long, Integer> count : counts.entrySet()) {
+                Entry entry = entries.get(count.getKey());
+                if (entry != null && entry.enrolled != count.getValue()) {
+                    entry.enrolled = count.getValue();
+                    corrected++;
+                }
+            }
+            if (corrected > 0) {
+                recomputeTop();
+                corrections.add(corrected);
+            }
+            refreshedAtNanos = System.nanoTime();
+        }
+        refreshes.increment();
+    }
+    
+    private Map<Long, Integer> loadCounts() {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Object[] row : courseRepository.findEnrollmentCounts()) {
+            counts.put((Long) row[0], row[1] != null ? (Integer) row[1] : 0);
+        }
+        return counts;
+    }
+    
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("topK", topK);
+        stats.put("courses", entries.size());
+        stats.put("servedPages", servedPages.sum());
+        stats.put("fallbackPages", fallbackPages.sum());
+        stats.put("refreshes", refreshes.sum());
+        stats.put("corrections", corrections.sum());
+        stats.put("ageMs", seeded ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - refreshedAtNanos) : null);
+        return stats;
+    }
+    
+    private void offer(Entry entry) {
+        if (top.size() < topK) {
+            top.add(entry);
+        } else if (ORDER.compare(entry, top.last()) < 0) {
+            top.add(entry);
+            top.pollLast();
+        }
+    }
+    
+    // Tops the set back up to K with the best courses outside it; one pass over all courses
+    private void refill() {
+        while (top.size() < topK && top.size() < entries.size()) {
+            Entry best = null;
+            for (Entry entry : entries.values()) {
+                if (!top.contains(entry) && (best == null || ORDER.compare(entry, best) < 0)) {
+                    best = entry;
+                }
+            }
+            top.add(best);
+        }
+    }
+    
+    private void recomputeTop() {
+        top.clear();
+        entries.values().forEach(this::offer);
+    }
+    
+    private static List<CourseDto> toDtos(List<Entry> entries) {
+        List<CourseDto> courses = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            courses.add(summary(entry.course, entry.enrolled));
+        }
+        return courses;
+    }
+    
+    // Same shape as CourseRepository.SUMMARY rows, without the description
+    private static CourseDto summary(CourseDto c, Integer enrolled) {
+        return new CourseDto(c.getId(), c.getTitle(), c.getCategory(), c.getLevel(), c.getInstructorId(),
+                c.getInstructorName(), c.getDuration(), c.getLessons(), enrolled, c.getCreatedAt(), c.getUpdatedAt());
+    }
+    
+    private static final class Entry {
+        final long id;
+        final CourseDto course;
+        // Guarded by the leaderboard; an entry is taken out of top before this changes
+        int enrolled;
+        
+        Entry(CourseDto course) {
+            this.id = course.getId();
+            this.course = summary(course, null);
+            this.enrolled = course.getStudentsEnrolled() != null ? course.getStudentsEnrolled() : 0;
+        }
+        
+        // Cursor probe for tailSet
+        Entry(long id, int enrolled) {
+            this.id = id;
+            this.course = null;
+            this.enrolled = enrolled;
+        }
+    }
+}
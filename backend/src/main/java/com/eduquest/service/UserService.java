@@ -1,6 +1,7 @@
 package com.eduquest.service;
 
 import com.eduquest.dto.UserRegistrationDto;
+import com.eduquest.dto.UserResponseDto;
 import com.eduquest.entity.User;
 import com.eduquest.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +11,8 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -22,6 +25,10 @@ public class UserService {
     private PasswordEncoder passwordEncoder;
     
     public User createUser(UserRegistrationDto registrationDto) {
+        return createUser(registrationDto, passwordEncoder.encode(registrationDto.getPassword()));
+    }
+    
+    public User createUser(UserRegistrationDto registrationDto, String encodedPassword) {
         // Check if email already exists
         if (userRepository.existsByEmail(registrationDto.getEmail())) {
             throw new RuntimeException("Error: Email is already in use!");
@@ -31,7 +38,7 @@ public class UserService {
         User user = new User();
         user.setName(registrationDto.getName());
         user.setEmail(registrationDto.getEmail());
-        user.setPassword(passwordEncoder.encode(registrationDto.getPassword()));
+        user.setPassword(encodedPassword);
         user.setRole(User.Role.STUDENT); // Default role
         
         return userRepository.save(user);
@@ -49,10 +56,21 @@ public class UserService {
         return userRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
+    public void streamAllUsers(Consumer<UserResponseDto> consumer) {
+        try (Stream<UserResponseDto> rows = userRepository.streamAllAsDto()) {
+            rows.forEach(consumer);
+        }
+    }
+    
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
     
+    public User getUserReference(Long id) {
+        return userRepository.getReferenceById(id);
+    }
+    
     public User updateUser(User user) {
         return userRepository.save(user);
     }
@@ -0,0 +1,94 @@
+package com.eduquest.controller;
+
+import com.eduquest.entity.User;
+import com.eduquest.security.JwtUtils;
+import com.eduquest.security.UserDetailsImpl;
+import com.eduquest.service.DashboardSummaryService;
+import com.eduquest.service.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class CurrentUserQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private DashboardSummaryService dashboardSummaryService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        User student = new User();
+        student.setName("Query Count Student");
+        student.setEmail("querycount@example.com");
+        student.setPassword("password123");
+        student.setRole(User.Role.STUDENT);
+        student = userService.updateUser(student);
+        // Measure steady state, not the one-off summary backfill
+        dashboardSummaryService.getSummary(student.getId());
+
+        UserDetailsImpl principal = UserDetailsImpl.build(student);
+        token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void testEndpointsIssueFewerStatements() throws Exception {
+        // Before CurrentUser every handler selected the user by id first: 2, 1 and 2 statements
+        assertStatements("/achievements", 0, 1);
+        assertStatements("/achievements/count", 0, 1);
+        assertStatements("/enroll/my-courses", 0, 1);
+        // The dashboard needs the entity and loads it exactly once; it was 4 statements before
+        assertStatements("/dashboard", 1, 4);
+        // A cached dashboard costs only the user load
+        assertStatements("/dashboard", 1, 1);
+    }
+
+    private void assertStatements(String path, long expectedLoads, long maxStatements) throws Exception {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        mockMvc.perform(get(path).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals(expectedLoads, statistics.getEntityStatistics(User.class.getName()).getLoadCount(), "user loads for " + path);
+        assertTrue(statements <= maxStatements, path + " issued " + statements + " statements, expected at most " + maxStatements);
+    }
+}
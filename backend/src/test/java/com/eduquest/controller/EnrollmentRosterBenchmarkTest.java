@@ -0,0 +1,157 @@
+package com.eduquest.controller;
+
+import com.eduquest.entity.Course;
+import com.eduquest.entity.Enrollment;
+import com.eduquest.entity.User;
+import com.eduquest.repository.CourseRepository;
+import com.eduquest.repository.EnrollmentRepository;
+import com.eduquest.repository.UserRepository;
+import com.eduquest.security.JwtUtils;
+import com.eduquest.security.UserDetailsImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Seeds one large course and one student enrolled in many courses, then checks
+ * that the roster and my-courses endpoints each run a single statement. Latency
+ * is logged at info level for comparison, never asserted. Runs without a test
+ * transaction: the streamed roster is written on an async thread that only sees
+ * committed rows.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EnrollmentRosterBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnrollmentRosterBenchmarkTest.class);
+
+    private static final int ROSTER_SIZE = 2000;
+    private static final int MY_COURSES_SIZE = 200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Course> courses = new ArrayList<>();
+    private final List<Enrollment> enrollments = new ArrayList<>();
+
+    private Course largeCourse;
+    private String instructorToken;
+    private String studentToken;
+
+    @BeforeEach
+    void setUp() {
+        User instructor = userRepository.save(newUser("Roster Instructor", "roster-instructor@test.com", User.Role.INSTRUCTOR));
+        users.add(instructor);
+        largeCourse = courseRepository.save(new Course("Large Course", "Large", "Benchmark", Course.Level.BEGINNER, instructor, 10, 5));
+        courses.add(largeCourse);
+
+        List<User> students = new ArrayList<>();
+        for (int i = 0; i < ROSTER_SIZE; i++) {
+            students.add(newUser("Student " + i, "roster-student" + i + "@test.com", User.Role.STUDENT));
+        }
+        students = userRepository.saveAll(students);
+        users.addAll(students);
+
+        for (User student : students) {
+            enrollments.add(new Enrollment(student, largeCourse));
+        }
+
+        // The first student is also enrolled in many small courses
+        User busyStudent = students.get(0);
+        for (int i = 0; i < MY_COURSES_SIZE; i++) {
+            Course course = courseRepository.save(new Course("Course " + i, "Small", "Benchmark", Course.Level.BEGINNER, instructor, 1, 1));
+            courses.add(course);
+            enrollments.add(new Enrollment(busyStudent, course));
+        }
+        enrollmentRepository.saveAll(enrollments);
+
+        instructorToken = tokenFor(instructor);
+        studentToken = tokenFor(busyStudent);
+    }
+
+    @AfterEach
+    void tearDown() {
+        enrollmentRepository.deleteAllInBatch(enrollments);
+        courseRepository.deleteAllInBatch(courses);
+        userRepository.deleteAllInBatch(users);
+    }
+
+    @Test
+    void testRosterAndMyCoursesRunInOneStatement() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        long rosterStatements = measure(statistics, "/enroll/course/" + largeCourse.getId(), instructorToken, ROSTER_SIZE, true);
+        long myCoursesStatements = measure(statistics, "/enroll/my-courses", studentToken, MY_COURSES_SIZE + 1, false);
+
+        assertEquals(1, rosterStatements);
+        assertEquals(1, myCoursesStatements);
+    }
+
+    private long measure(Statistics statistics, String path, String token, int expectedRows, boolean streamed) throws Exception {
+        statistics.clear();
+
+        long start = System.nanoTime();
+        ResultActions response = mockMvc.perform(get(path).header("Authorization", "Bearer " + token));
+        if (streamed) {
+            // The roster is a StreamingResponseBody, written after the handler returns
+            response = mockMvc.perform(asyncDispatch(response.andExpect(request().asyncStarted()).andReturn()));
+        }
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(expectedRows));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        long statements = statistics.getPrepareStatementCount();
+        logger.info("{}: {} rows in {} ms, {} statements", path, expectedRows, elapsedMs, statements);
+        return statements;
+    }
+
+    private String tokenFor(User user) {
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static User newUser(String name, String email, User.Role role) {
+        User user = new User(name, email, "password123");
+        user.setRole(role);
+        return user;
+    }
+}
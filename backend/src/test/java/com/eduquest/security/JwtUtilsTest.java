@@ -0,0 +1,65 @@
+package com.eduquest.security;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilsTest {
+
+    private static final String SECRET = "jwt-utils-test-secret-that-is-long-enough-for-hs512-signatures-0123456789";
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60000);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheSize", 100);
+        jwtUtils.init();
+
+        UserDetailsImpl principal = new UserDetailsImpl(42L, "Test User", "test@example.com", null,
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_STUDENT")));
+        token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Test
+    void testVerifyBuildsPrincipalFromClaims() {
+        Claims claims = jwtUtils.verifyJwtToken(token);
+        assertNotNull(claims);
+
+        UserDetailsImpl userDetails = jwtUtils.buildUserDetailsFromClaims(claims);
+        assertEquals(42L, userDetails.getId());
+        assertEquals("Test User", userDetails.getName());
+        assertEquals("test@example.com", userDetails.getUsername());
+        assertEquals("ROLE_STUDENT", userDetails.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void testRejectsTamperedToken() {
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertNull(jwtUtils.verifyJwtToken(tampered));
+        assertNotNull(jwtUtils.verifyJwtToken(token));
+    }
+
+    @Test
+    void testRepeatedVerificationIsServedFromCache() {
+        Claims first = jwtUtils.verifyJwtToken(token);
+        // A fresh parse would build a new Claims instance
+        assertSame(first, jwtUtils.verifyJwtToken(token));
+
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheSize", 0);
+        jwtUtils.init();
+        Claims uncached = jwtUtils.verifyJwtToken(token);
+        assertNotSame(uncached, jwtUtils.verifyJwtToken(token));
+        assertEquals(first.getSubject(), uncached.getSubject());
+    }
+}
@@ -0,0 +1,90 @@
+package com.eduquest.security;
+
+import com.eduquest.repository.RevokedTokenRepository;
+import com.eduquest.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs without a test transaction: login authenticates on the hashing pool, which
+ * only sees committed users.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TokenRevocationTest {
+
+    private static final String EMAIL = "revocation@example.com";
+    private static final String PASSWORD = "password123";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.findByEmail(EMAIL).ifPresent(user -> {
+            revokedTokenRepository.deleteAll(revokedTokenRepository.findAll().stream()
+                    .filter(revoked -> user.getId().equals(revoked.getUserId()))
+                    .toList());
+            userRepository.delete(user);
+        });
+    }
+
+    @Test
+    void testLoginRightAfterLogoutAllStaysValid() throws Exception {
+        completeAsync(mockMvc.perform(post("/auth/signup")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Revocation User\",\"email\":\"" + EMAIL + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn());
+        String oldToken = login();
+
+        mockMvc.perform(post("/auth/logout-all").header("Authorization", "Bearer " + oldToken))
+                .andExpect(status().isOk());
+        // Usually lands in the same second as the cutoff
+        String newToken = login();
+
+        mockMvc.perform(get("/achievements/count").header("Authorization", "Bearer " + newToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/achievements/count").header("Authorization", "Bearer " + oldToken))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private String login() throws Exception {
+        MvcResult result = completeAsync(mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + EMAIL + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn());
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("token").asText();
+    }
+
+    private MvcResult completeAsync(MvcResult started) throws Exception {
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+}
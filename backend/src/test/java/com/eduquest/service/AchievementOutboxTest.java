@@ -0,0 +1,124 @@
+package com.eduquest.service;
+
+import com.eduquest.dto.ProgressResultDto;
+import com.eduquest.entity.Achievement;
+import com.eduquest.entity.Course;
+import com.eduquest.entity.Enrollment;
+import com.eduquest.entity.OutboxEvent;
+import com.eduquest.entity.User;
+import com.eduquest.repository.AchievementRepository;
+import com.eduquest.repository.CourseRepository;
+import com.eduquest.repository.EnrollmentRepository;
+import com.eduquest.repository.OutboxEventRepository;
+import com.eduquest.repository.UserDashboardSummaryRepository;
+import com.eduquest.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs without a test transaction: requests and workers each commit on their
+ * own, as in production.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AchievementOutboxTest {
+
+    @Autowired
+    private AchievementOutbox achievementOutbox;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private AchievementRepository achievementRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private UserDashboardSummaryRepository summaryRepository;
+
+    private User instructor;
+    private User student;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(achievementOutbox, "mode", AchievementOutbox.MODE_OUTBOX);
+        instructor = userRepository.save(newUser("outbox-instructor@test.com", User.Role.INSTRUCTOR));
+        student = userRepository.save(newUser("outbox-student@test.com", User.Role.STUDENT));
+        course = courseRepository.save(new Course("Outbox Course", "Description", "Outbox", Course.Level.BEGINNER, instructor, 3, 3));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(achievementOutbox, "mode", AchievementOutbox.MODE_INLINE);
+        outboxEventRepository.deleteAll();
+        achievementRepository.deleteAll(achievementRepository.findByUserId(student.getId()));
+        enrollmentRepository.deleteAll(enrollmentRepository.findByCourseId(course.getId()));
+        courseRepository.deleteById(course.getId());
+        summaryRepository.deleteAllByIdInBatch(List.of(student.getId(), instructor.getId()));
+        userRepository.deleteAllByIdInBatch(List.of(student.getId(), instructor.getId()));
+    }
+
+    @Test
+    void testSideEffectsAreAppliedByWorkers() {
+        enrollmentService.enroll(course.getId(), student.getId(), User.Role.STUDENT);
+        ProgressResultDto result = enrollmentService.updateProgress(course.getId(), 100, student.getId());
+        assertEquals(Enrollment.CompletionStatus.COMPLETED, result.getCompletionStatus());
+
+        // Also settles anything the scheduled poller already picked up
+        achievementOutbox.processPending();
+
+        assertEquals(0L, outboxEventRepository.countByStatus(OutboxEvent.Status.PENDING));
+        assertEquals(1, userRepository.findById(student.getId()).orElseThrow().getCurrentStreak());
+        assertEquals(1L, achievementRepository.countByUserIdAndType(student.getId(), Achievement.AchievementType.COURSE_COMPLETION));
+        assertEquals(4L, achievementRepository.countByUserId(student.getId()));
+
+        // Reprocessing is a no-op
+        assertEquals(0, achievementOutbox.processPending());
+        assertEquals(0L, achievementOutbox.getStats().get("lagMs"));
+    }
+
+    @Test
+    void testEveryPendingDayCountsTowardsTheStreak() {
+        LocalDateTime now = LocalDateTime.now();
+        outboxEventRepository.saveAll(List.of(
+                new OutboxEvent(student.getId(), OutboxEvent.Type.ACTIVITY, null, now.minusDays(2)),
+                new OutboxEvent(student.getId(), OutboxEvent.Type.ACTIVITY, null, now.minusDays(1)),
+                new OutboxEvent(student.getId(), OutboxEvent.Type.ACTIVITY, null, now)));
+
+        achievementOutbox.processPending();
+
+        // Only the first and last day would leave a gap and restart the streak
+        assertEquals(3, userRepository.findById(student.getId()).orElseThrow().getCurrentStreak());
+    }
+
+    private static User newUser(String email, User.Role role) {
+        User user = new User();
+        user.setName("Outbox User");
+        user.setEmail(email);
+        user.setPassword("password123");
+        user.setRole(role);
+        return user;
+    }
+}
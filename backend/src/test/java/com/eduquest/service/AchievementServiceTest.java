@@ -4,12 +4,15 @@ import com.eduquest.entity.Achievement;
 import com.eduquest.entity.Course;
 import com.eduquest.entity.User;
 import com.eduquest.repository.AchievementRepository;
+import com.eduquest.repository.CourseRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 @SpringBootTest
@@ -29,6 +32,9 @@ class AchievementServiceTest {
     @Autowired
     private CourseService courseService;
 
+    @Autowired
+    private CourseRepository courseRepository;
+
     @Test
     void testAwardAchievement() {
         // Create a test user
@@ -78,12 +84,58 @@ class AchievementServiceTest {
         assertEquals(1, achievements.size());
         assertEquals("Test Achievement", achievements.get(0).getTitle());
     }
-}
-
-
-
-
-
-
 
+    @Test
+    void testEvaluateAchievementsAwardsEachTypeOnce() {
+        User instructor = new User();
+        instructor.setName("Rules Instructor");
+        instructor.setEmail("rules-instructor@example.com");
+        instructor.setPassword("password123");
+        instructor.setRole(User.Role.INSTRUCTOR);
+        instructor = userService.updateUser(instructor);
+
+        User student = new User();
+        student.setName("Rules Student");
+        student.setEmail("rules-student@example.com");
+        student.setPassword("password123");
+        student.setRole(User.Role.STUDENT);
+        student.setCurrentStreak(3);
+        student = userService.updateUser(student);
+
+        Course first = courseRepository.save(new Course("Rules Course One", "Description", "Rules", Course.Level.BEGINNER, instructor, 3, 3));
+        Course second = courseRepository.save(new Course("Rules Course Two", "Description", "Rules", Course.Level.BEGINNER, instructor, 3, 3));
+
+        // Completion, first course, perfect score and early bird (new course); the streak is not a completion rule
+        assertEquals(4, achievementService.evaluateAchievements(student, List.of(first, second)));
+        assertEquals(0, achievementService.evaluateAchievements(student, List.of(second)));
+        assertEquals(4L, achievementRepository.countByUserId(student.getId()));
+        assertEquals(0L, achievementRepository.countByUserIdAndType(student.getId(), Achievement.AchievementType.STREAK_3_DAYS));
+        assertEquals(1L, achievementRepository.countByUserIdAndType(student.getId(), Achievement.AchievementType.COURSE_COMPLETION));
+        assertEquals("Course Completed: Rules Course One",
+                achievementRepository.findFirstByUserIdAndType(student.getId(), Achievement.AchievementType.COURSE_COMPLETION).orElseThrow().getTitle());
+    }
 
+    @Test
+    void testEachTriggerRunsOnlyItsOwnRules() {
+        User instructor = new User();
+        instructor.setName("Trigger Instructor");
+        instructor.setEmail("trigger-instructor@example.com");
+        instructor.setPassword("password123");
+        instructor.setRole(User.Role.INSTRUCTOR);
+        instructor.setCurrentStreak(3);
+        instructor = userService.updateUser(instructor);
+
+        // A streak change does not make an instructor a course creator or mentor
+        achievementService.checkAndAwardStreakAchievements(instructor);
+        assertEquals(1L, achievementRepository.countByUserId(instructor.getId()));
+        assertEquals(1L, achievementRepository.countByUserIdAndType(instructor.getId(), Achievement.AchievementType.STREAK_3_DAYS));
+
+        // Creating a course awards course creator and mentor, and no streak badges
+        instructor.setCurrentStreak(7);
+        achievementService.checkAndAwardCourseCreatorAchievements(instructor);
+        assertEquals(3L, achievementRepository.countByUserId(instructor.getId()));
+        assertEquals(1L, achievementRepository.countByUserIdAndType(instructor.getId(), Achievement.AchievementType.COURSE_CREATOR));
+        assertEquals(1L, achievementRepository.countByUserIdAndType(instructor.getId(), Achievement.AchievementType.MENTOR));
+        assertEquals(0L, achievementRepository.countByUserIdAndType(instructor.getId(), Achievement.AchievementType.STREAK_7_DAYS));
+    }
+}
@@ -0,0 +1,87 @@
+package com.eduquest.service;
+
+import com.eduquest.dto.CourseDto;
+import com.eduquest.dto.CourseFacetsDto;
+import com.eduquest.dto.CourseFilterDto;
+import com.eduquest.entity.Course;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseFilterIndexTest {
+
+    private CourseFilterIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CourseFilterIndex();
+        // Deliberately out of id order; listings must still come back ascending
+        index.rebuild(List.of(
+                course(4L, "Design", Course.Level.BEGINNER, 10L, 6, 12, 300),
+                course(1L, "Programming", Course.Level.BEGINNER, 10L, 40, 20, 1500),
+                course(3L, "Programming", Course.Level.ADVANCED, 11L, 25, 30, 40),
+                course(2L, "Programming", Course.Level.INTERMEDIATE, 11L, 12, 8, 0)
+        ));
+    }
+
+    @Test
+    void testCombinedFiltersIntersectAcrossAttributes() {
+        CourseFilterDto filter = new CourseFilterDto();
+        filter.setCategory(List.of("Programming"));
+        filter.setMinDuration(12);
+        filter.setMaxDuration(30);
+        assertEquals(List.of(2L, 3L), index.findIds(filter, null, 10));
+
+        filter.setInstructorId(List.of(11L));
+        filter.setMinLessons(10);
+        assertEquals(List.of(3L), index.findIds(filter, null, 10));
+
+        CourseFilterDto popular = new CourseFilterDto();
+        popular.setMinEnrolled(300);
+        popular.setLevel(List.of(Course.Level.BEGINNER, Course.Level.ADVANCED));
+        assertEquals(List.of(1L, 4L), index.findIds(popular, null, 10));
+    }
+
+    @Test
+    void testPagesResumeAfterCursorId() {
+        CourseFilterDto filter = new CourseFilterDto();
+        filter.setMinLessons(0);
+        assertEquals(List.of(1L, 2L), index.findIds(filter, null, 2));
+        assertEquals(List.of(3L, 4L), index.findIds(filter, 2L, 2));
+        assertTrue(index.findIds(filter, 4L, 2).isEmpty());
+    }
+
+    @Test
+    void testWritesAndEnrollmentDeltasKeepIndexInSync() {
+        CourseFilterDto filter = new CourseFilterDto();
+        filter.setMinEnrolled(41);
+        assertEquals(List.of(1L, 4L), index.findIds(filter, null, 10));
+
+        index.enrollmentChanged(3L, 1);
+        index.remove(4L);
+        index.upsert(course(2L, "Design", Course.Level.INTERMEDIATE, 12L, 12, 8, 50));
+        assertEquals(List.of(1L, 2L, 3L), index.findIds(filter, null, 10));
+
+        CourseFacetsDto facets = index.getFacets(null);
+        assertEquals(3, facets.getTotalCourses());
+        assertEquals(2, facets.getCategories().get("Programming"));
+        assertEquals(1, facets.getCategoryLevels().get("Design").get(Course.Level.INTERMEDIATE));
+    }
+
+    private static CourseDto course(Long id, String category, Course.Level level, Long instructorId,
+                                    int duration, int lessons, int studentsEnrolled) {
+        CourseDto course = new CourseDto();
+        course.setId(id);
+        course.setTitle("Course " + id);
+        course.setCategory(category);
+        course.setLevel(level);
+        course.setInstructorId(instructorId);
+        course.setDuration(duration);
+        course.setLessons(lessons);
+        course.setStudentsEnrolled(studentsEnrolled);
+        return course;
+    }
+}
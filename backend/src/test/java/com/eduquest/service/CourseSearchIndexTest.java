@@ -0,0 +1,67 @@
+package com.eduquest.service;
+
+import com.eduquest.dto.CourseDto;
+import com.eduquest.entity.Course;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseSearchIndexTest {
+
+    private CourseSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CourseSearchIndex();
+        index.rebuild(List.of(
+                course(1L, "Java Programming Basics", "Programming", "Learn Java from scratch"),
+                course(2L, "Advanced Java Concurrency", "Programming", "Threads, locks and executors in Java"),
+                course(3L, "Watercolor Painting", "Art", "Brushes, paper and a little Java coffee"),
+                course(4L, "Caf\u00e9 Design", "Design", "Interior design for small spaces")
+        ));
+    }
+
+    @Test
+    void testTitleMatchesRankAboveDescriptionMatches() {
+        List<Long> ids = ids(index.search("java"));
+        assertEquals(3, ids.size());
+        assertEquals(3L, ids.get(2), "description-only match should rank last");
+    }
+
+    @Test
+    void testPrefixAccentAndTypoMatching() {
+        assertEquals(List.of(2L), ids(index.search("concur")));
+        assertEquals(List.of(4L), ids(index.search("CAFE")));
+        assertEquals(List.of(3L), ids(index.search("watercolr")));
+    }
+
+    @Test
+    void testUpsertAndRemoveKeepIndexInSync() {
+        index.upsert(course(3L, "Oil Painting", "Art", "Canvas techniques"));
+        assertFalse(ids(index.search("java")).contains(3L));
+        assertEquals(List.of(3L), ids(index.search("oil")));
+
+        index.remove(3L);
+        assertTrue(index.search("oil").isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    private static List<Long> ids(List<CourseSearchIndex.Hit> hits) {
+        return hits.stream().map(CourseSearchIndex.Hit::getCourseId).collect(Collectors.toList());
+    }
+
+    private static CourseDto course(Long id, String title, String category, String description) {
+        CourseDto course = new CourseDto();
+        course.setId(id);
+        course.setTitle(title);
+        course.setCategory(category);
+        course.setDescription(description);
+        course.setLevel(Course.Level.BEGINNER);
+        course.setStudentsEnrolled(0);
+        return course;
+    }
+}
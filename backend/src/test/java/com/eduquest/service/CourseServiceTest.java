@@ -1,9 +1,15 @@
 package com.eduquest.service;
 
 import com.eduquest.dto.CourseCreateDto;
+import com.eduquest.dto.CourseDto;
+import com.eduquest.dto.CursorPageDto;
 import com.eduquest.entity.Course;
 import com.eduquest.entity.User;
 import com.eduquest.repository.CourseRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -26,6 +32,12 @@ class CourseServiceTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test
     void testCreateCourse() {
         // Create a test instructor
@@ -63,12 +75,44 @@ class CourseServiceTest {
         // Should not be null
         assertNotNull(courses);
     }
-}
 
+    @Test
+    void testCourseListStatementCountIsIndependentOfCatalogSize() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
 
+        // One instructor per course, so a lazy instructor lookup per row would show up as extra statements
+        seedCourses(5);
+        long smallCatalogStatements = countListStatements(statistics);
 
+        seedCourses(45);
+        long largeCatalogStatements = countListStatements(statistics);
 
+        assertEquals(1, smallCatalogStatements);
+        assertEquals(smallCatalogStatements, largeCatalogStatements);
+    }
 
+    private long countListStatements(Statistics statistics) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
 
+        CursorPageDto<CourseDto> page = courseService.getPopularCoursesPage(null, CourseService.MAX_PAGE_SIZE);
+        page.getItems().forEach(course -> assertNotNull(course.getInstructorName()));
 
+        return statistics.getPrepareStatementCount();
+    }
 
+    private void seedCourses(int count) {
+        for (int i = 0; i < count; i++) {
+            User instructor = new User();
+            instructor.setName("Instructor " + i);
+            instructor.setEmail("instructor" + System.nanoTime() + "@test.com");
+            instructor.setPassword("password123");
+            instructor.setRole(User.Role.INSTRUCTOR);
+            instructor = userService.updateUser(instructor);
+
+            Course course = new Course("Course " + i, "Description " + i, "Test Category", Course.Level.BEGINNER, instructor, 10, 5);
+            courseRepository.save(course);
+        }
+    }
+}
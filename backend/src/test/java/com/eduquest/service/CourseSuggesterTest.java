@@ -0,0 +1,67 @@
+package com.eduquest.service;
+
+import com.eduquest.dto.CourseDto;
+import com.eduquest.dto.CourseSuggestionDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CourseSuggesterTest {
+
+    private CourseSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new CourseSuggester(3);
+        suggester.rebuild(List.of(
+                course(1L, "Java Programming Basics", "Programming", 50),
+                course(2L, "Advanced Java Concurrency", "Programming", 80),
+                course(3L, "JavaScript for Web", "Web", 120),
+                course(4L, "Jazz Piano", "Music", 5)
+        ));
+    }
+
+    @Test
+    void testSuggestionsRankedByEnrollmentAndCappedAtTopK() {
+        assertEquals(List.of("JavaScript for Web", "Advanced Java Concurrency", "Java Programming Basics"),
+                texts(suggester.suggest("ja", 10)));
+        assertEquals(List.of("JavaScript for Web"), texts(suggester.suggest("JA", 1)));
+    }
+
+    @Test
+    void testMatchesWordStartsAndCategories() {
+        assertEquals(List.of("Advanced Java Concurrency"), texts(suggester.suggest("conc", 10)));
+
+        CourseSuggestionDto category = suggester.suggest("prog", 10).get(0);
+        assertEquals(CourseSuggestionDto.SuggestionType.CATEGORY, category.getType());
+        assertEquals(130, category.getStudentsEnrolled());
+    }
+
+    @Test
+    void testChangesArePublishedToReaders() {
+        suggester.remove(3L);
+        suggester.upsert(course(5L, "Jamming Together", "Music", 1000));
+
+        assertEquals(List.of("Jamming Together", "Advanced Java Concurrency", "Java Programming Basics"),
+                texts(suggester.suggest("ja", 10)));
+        assertTrue(suggester.suggest("javascript", 10).isEmpty());
+        assertTrue(suggester.suggest("  ", 10).isEmpty());
+    }
+
+    private static List<String> texts(List<CourseSuggestionDto> suggestions) {
+        return suggestions.stream().map(CourseSuggestionDto::getText).collect(Collectors.toList());
+    }
+
+    private static CourseDto course(Long id, String title, String category, int enrolled) {
+        CourseDto course = new CourseDto();
+        course.setId(id);
+        course.setTitle(title);
+        course.setCategory(category);
+        course.setStudentsEnrolled(enrolled);
+        return course;
+    }
+}
@@ -0,0 +1,67 @@
+package com.eduquest.service;
+
+import com.eduquest.dto.DashboardDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DashboardCacheTest {
+
+    @Test
+    void testConcurrentMissesLoadOnce() throws Exception {
+        DashboardCache cache = new DashboardCache(100, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<DashboardDto>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.get(1L, () -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new DashboardDto(1L, "Student");
+                })));
+            }
+
+            Thread.sleep(200);
+            release.countDown();
+
+            DashboardDto first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<DashboardDto> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidateForcesReload() {
+        DashboardCache cache = new DashboardCache(100, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, () -> new DashboardDto(1L, "Load " + loads.incrementAndGet()));
+        cache.get(1L, () -> new DashboardDto(1L, "Load " + loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+
+        cache.invalidate(1L);
+        DashboardDto reloaded = cache.get(1L, () -> new DashboardDto(1L, "Load " + loads.incrementAndGet()));
+        assertEquals("Load 2", reloaded.getUserName());
+        assertEquals(1L, cache.getStats().get("hits"));
+    }
+}
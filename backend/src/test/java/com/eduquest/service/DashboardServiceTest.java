@@ -0,0 +1,96 @@
+package com.eduquest.service;
+
+import com.eduquest.dto.DashboardDto;
+import com.eduquest.dto.ProgressUpdateDto;
+import com.eduquest.entity.Course;
+import com.eduquest.entity.User;
+import com.eduquest.repository.AchievementRepository;
+import com.eduquest.repository.CourseRepository;
+import com.eduquest.repository.UserDashboardSummaryRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class DashboardServiceTest {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private AchievementRepository achievementRepository;
+
+    @Autowired
+    private UserDashboardSummaryRepository summaryRepository;
+
+    @Autowired
+    private DashboardCache dashboardCache;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testSummaryTracksEnrollmentChanges() {
+        User instructor = createUser("summary-instructor@example.com", User.Role.INSTRUCTOR);
+        User student = createUser("summary-student@example.com", User.Role.STUDENT);
+        Course longCourse = courseRepository.save(new Course("Long Course", "Description", "Summary", Course.Level.BEGINNER, instructor, 10, 5));
+        Course shortCourse = courseRepository.save(new Course("Short Course", "Description", "Summary", Course.Level.BEGINNER, instructor, 4, 2));
+
+        enrollmentService.enrollUserInCourse(longCourse.getId(), student);
+        enrollmentService.enrollUserInCourse(shortCourse.getId(), student);
+        enrollmentService.updateProgress(longCourse.getId(), new ProgressUpdateDto(100), student);
+
+        DashboardDto dashboard = dashboardService.getUserDashboard(student);
+        assertEquals(2, dashboard.getTotalEnrolledCourses());
+        assertEquals(1, dashboard.getCompletedCourses());
+        assertEquals(1, dashboard.getInProgressCourses());
+        assertEquals(10, dashboard.getTotalHours());
+        assertEquals(achievementRepository.countByUserId(student.getId()).intValue(), dashboard.getTotalAchievements());
+        assertEquals(2, dashboard.getRecentEnrollments().size());
+
+        enrollmentService.unenrollUserFromCourse(longCourse.getId(), student);
+
+        dashboard = dashboardService.getUserDashboard(student);
+        assertEquals(1, dashboard.getTotalEnrolledCourses());
+        assertEquals(0, dashboard.getCompletedCourses());
+        assertEquals(1, dashboard.getInProgressCourses());
+        assertEquals(0, dashboard.getTotalHours());
+
+        // A rebuilt summary must agree with the incrementally maintained one
+        summaryRepository.deleteById(student.getId());
+        dashboardCache.invalidate(student.getId());
+        entityManager.flush();
+        entityManager.clear();
+        DashboardDto rebuilt = dashboardService.getUserDashboard(student.getId());
+        assertEquals(dashboard.getTotalEnrolledCourses(), rebuilt.getTotalEnrolledCourses());
+        assertEquals(dashboard.getCompletedCourses(), rebuilt.getCompletedCourses());
+        assertEquals(dashboard.getInProgressCourses(), rebuilt.getInProgressCourses());
+        assertEquals(dashboard.getTotalHours(), rebuilt.getTotalHours());
+        assertEquals(dashboard.getTotalAchievements(), rebuilt.getTotalAchievements());
+    }
+
+    private User createUser(String email, User.Role role) {
+        User user = new User();
+        user.setName("Summary User");
+        user.setEmail(email);
+        user.setPassword("password123");
+        user.setRole(role);
+        return userService.updateUser(user);
+    }
+}
@@ -0,0 +1,130 @@
+package com.eduquest.service;
+
+import com.eduquest.entity.Course;
+import com.eduquest.entity.User;
+import com.eduquest.entity.UserDashboardSummary;
+import com.eduquest.repository.AchievementRepository;
+import com.eduquest.repository.CourseRepository;
+import com.eduquest.repository.EnrollmentRepository;
+import com.eduquest.repository.UserDashboardSummaryRepository;
+import com.eduquest.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two requests race to create a first-time user's summary row. Runs without a
+ * test transaction so each request commits on its own, as in production.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class DashboardSummaryConcurrencyTest {
+
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private DashboardSummaryService dashboardSummaryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private UserDashboardSummaryRepository summaryRepository;
+
+    @Autowired
+    private AchievementRepository achievementRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<Course> courses = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        for (Course course : courses) {
+            enrollmentRepository.deleteAll(enrollmentRepository.findByCourseId(course.getId()));
+            courseRepository.deleteById(course.getId());
+        }
+        for (User user : users) {
+            achievementRepository.deleteAll(achievementRepository.findByUserId(user.getId()));
+            summaryRepository.deleteById(user.getId());
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    @Test
+    void testConcurrentFirstWritesCreateOneSummary() throws Exception {
+        User instructor = save(newUser("summary-race-instructor@test.com", User.Role.INSTRUCTOR));
+        Course first = saveCourse(new Course("Race One", "Description", "Race", Course.Level.BEGINNER, instructor, 3, 3));
+        Course second = saveCourse(new Course("Race Two", "Description", "Race", Course.Level.BEGINNER, instructor, 5, 3));
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                User student = save(newUser("summary-race-student" + round + "@test.com", User.Role.STUDENT));
+                CyclicBarrier start = new CyclicBarrier(2);
+
+                // Enroll + enroll, and dashboard read + enroll, both without an existing row
+                Future<?> a = pool.submit(awaitThen(start, () -> enrollmentService.enroll(first.getId(), student.getId(), User.Role.STUDENT)));
+                Future<?> b = pool.submit(awaitThen(start, round % 2 == 0
+                        ? () -> enrollmentService.enroll(second.getId(), student.getId(), User.Role.STUDENT)
+                        : () -> dashboardSummaryService.getSummary(student.getId())));
+                a.get();
+                b.get();
+
+                UserDashboardSummary summary = summaryRepository.findById(student.getId()).orElseThrow();
+                assertEquals(round % 2 == 0 ? 2 : 1, summary.getEnrolledCourses(), "round " + round);
+                assertEquals(summary.getEnrolledCourses(), summary.getInProgressCourses(), "round " + round);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Callable<Object> awaitThen(CyclicBarrier start, Callable<?> action) {
+        return () -> {
+            start.await();
+            return action.call();
+        };
+    }
+
+    private User save(User user) {
+        User saved = userRepository.save(user);
+        users.add(saved);
+        return saved;
+    }
+
+    private Course saveCourse(Course course) {
+        Course saved = courseRepository.save(course);
+        courses.add(saved);
+        return saved;
+    }
+
+    private static User newUser(String email, User.Role role) {
+        User user = new User();
+        user.setName("Summary Race User");
+        user.setEmail(email);
+        user.setPassword("password123");
+        user.setRole(role);
+        return user;
+    }
+}
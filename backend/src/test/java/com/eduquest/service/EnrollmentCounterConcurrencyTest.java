@@ -0,0 +1,141 @@
+package com.eduquest.service;
+
+import com.eduquest.entity.Course;
+import com.eduquest.entity.User;
+import com.eduquest.repository.AchievementRepository;
+import com.eduquest.repository.CourseRepository;
+import com.eduquest.repository.EnrollmentRepository;
+import com.eduquest.repository.UserDashboardSummaryRepository;
+import com.eduquest.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Many students enroll in one popular course at once. Runs without a test
+ * transaction so every enrollment commits on its own, as in production; checks
+ * that no increment is lost and logs enrollments/sec for each counter mode at
+ * info level.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EnrollmentCounterConcurrencyTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(EnrollmentCounterConcurrencyTest.class);
+
+    private static final int STUDENTS = 400;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private EnrollmentCountBuffer enrollmentCountBuffer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private UserDashboardSummaryRepository summaryRepository;
+
+    @Autowired
+    private AchievementRepository achievementRepository;
+
+    private final List<Long> courseIds = new ArrayList<>();
+    private final List<Long> userIds = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(enrollmentCountBuffer, "mode", EnrollmentCountBuffer.MODE_ATOMIC);
+        for (Long courseId : courseIds) {
+            enrollmentRepository.deleteAll(enrollmentRepository.findByCourseId(courseId));
+            courseRepository.deleteById(courseId);
+        }
+        for (Long userId : userIds) {
+            achievementRepository.deleteAll(achievementRepository.findByUserId(userId));
+        }
+        summaryRepository.deleteAllByIdInBatch(userIds);
+        userRepository.deleteAllByIdInBatch(userIds);
+    }
+
+    @Test
+    void testAtomicUpdatesLoseNoEnrollments() throws Exception {
+        Course course = seed("atomic");
+        enrollAll(course, "atomic");
+
+        assertEquals(STUDENTS, courseRepository.findById(course.getId()).orElseThrow().getStudentsEnrolled());
+    }
+
+    @Test
+    void testWriteBehindCountsMatchAfterFlush() throws Exception {
+        ReflectionTestUtils.setField(enrollmentCountBuffer, "mode", EnrollmentCountBuffer.MODE_WRITE_BEHIND);
+        Course course = seed("write-behind");
+        enrollAll(course, "write-behind");
+
+        enrollmentCountBuffer.flush();
+        assertEquals(STUDENTS, courseRepository.findById(course.getId()).orElseThrow().getStudentsEnrolled());
+        assertEquals((long) STUDENTS, enrollmentRepository.countByCourseId(course.getId()));
+    }
+
+    private Course seed(String mode) {
+        User instructor = userRepository.save(newUser("Counter Instructor", "counter-" + mode + "-instructor@test.com", User.Role.INSTRUCTOR));
+        userIds.add(instructor.getId());
+        Course course = courseRepository.save(new Course("Popular " + mode, "Hot course", "Counter", Course.Level.BEGINNER, instructor, 10, 5));
+        courseIds.add(course.getId());
+        return course;
+    }
+
+    private void enrollAll(Course course, String mode) throws Exception {
+        List<User> students = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            students.add(newUser("Student " + i, "counter-" + mode + "-student" + i + "@test.com", User.Role.STUDENT));
+        }
+        List<User> saved = userRepository.saveAll(students);
+        saved.forEach(student -> userIds.add(student.getId()));
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> results = new ArrayList<>();
+            for (User student : saved) {
+                results.add(pool.submit(() -> enrollmentService.enrollUserInCourse(course.getId(), student)));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            logger.info("{}: {} enrollments on one course from {} threads in {} ms ({} enrollments/sec)",
+                    mode, STUDENTS, THREADS, Math.round(seconds * 1000), Math.round(STUDENTS / seconds));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static User newUser(String name, String email, User.Role role) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword("password123");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,190 @@
+package com.eduquest.service;
+
+import com.eduquest.dto.CohortEnrollmentResultDto;
+import com.eduquest.dto.ProgressBatchDto;
+import com.eduquest.dto.ProgressResultDto;
+import com.eduquest.entity.Achievement;
+import com.eduquest.entity.Course;
+import com.eduquest.entity.Enrollment;
+import com.eduquest.entity.User;
+import com.eduquest.repository.AchievementRepository;
+import com.eduquest.repository.CourseRepository;
+import com.eduquest.repository.EnrollmentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class EnrollmentServiceTest {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private AchievementRepository achievementRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testRepeatedEnrollReturnsExistingEnrollment() {
+        User instructor = createUser("idempotent-instructor@example.com", User.Role.INSTRUCTOR);
+        User student = createUser("idempotent-student@example.com", User.Role.STUDENT);
+        Course course = courseRepository.save(new Course("Idempotent Course", "Description", "Enroll", Course.Level.BEGINNER, instructor, 3, 3));
+
+        Enrollment first = enrollmentService.enroll(course.getId(), student.getId(), User.Role.STUDENT);
+        Enrollment second = enrollmentService.enroll(course.getId(), student.getId(), User.Role.STUDENT);
+
+        assertEquals(first.getId(), second.getId());
+        assertEquals(1L, enrollmentRepository.countByCourseId(course.getId()));
+        entityManager.clear();
+        assertEquals(1, courseRepository.findById(course.getId()).orElseThrow().getStudentsEnrolled());
+    }
+
+    @Test
+    void testEnrollInMissingCourseFails() {
+        User student = createUser("missing-course-student@example.com", User.Role.STUDENT);
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> enrollmentService.enroll(-1L, student.getId(), User.Role.STUDENT));
+        assertEquals("Course not found with id: -1", e.getMessage());
+    }
+
+    @Test
+    void testEnrollMissingUserFails() {
+        User instructor = createUser("missing-user-instructor@example.com", User.Role.INSTRUCTOR);
+        Course course = courseRepository.save(new Course("Missing User Course", "Description", "Enroll", Course.Level.BEGINNER, instructor, 3, 3));
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> enrollmentService.enroll(course.getId(), -1L, User.Role.STUDENT));
+        assertEquals("User not found with id: -1", e.getMessage());
+    }
+
+    @Test
+    void testProgressNeverMovesBackwards() {
+        User instructor = createUser("progress-instructor@example.com", User.Role.INSTRUCTOR);
+        User student = createUser("progress-student@example.com", User.Role.STUDENT);
+        Course course = courseRepository.save(new Course("Progress Course", "Description", "Progress", Course.Level.BEGINNER, instructor, 3, 3));
+        enrollmentService.enroll(course.getId(), student.getId(), User.Role.STUDENT);
+
+        enrollmentService.updateProgress(course.getId(), 60, student.getId());
+        ProgressResultDto stale = enrollmentService.updateProgress(course.getId(), 40, student.getId());
+        assertEquals(ProgressResultDto.Outcome.STALE, stale.getOutcome());
+        assertEquals(60, stale.getCurrentProgress());
+
+        enrollmentService.updateProgress(course.getId(), 100, student.getId());
+        enrollmentService.updateProgress(course.getId(), 80, student.getId());
+        entityManager.clear();
+        Enrollment stored = enrollmentRepository.findWithUserAndCourse(student.getId(), course.getId()).orElseThrow();
+        assertEquals(100, stored.getProgress());
+        assertEquals(Enrollment.CompletionStatus.COMPLETED, stored.getCompletionStatus());
+    }
+
+    @Test
+    void testProgressRequiresEnrollment() {
+        User instructor = createUser("unenrolled-instructor@example.com", User.Role.INSTRUCTOR);
+        User student = createUser("unenrolled-student@example.com", User.Role.STUDENT);
+        Course course = courseRepository.save(new Course("Unenrolled Course", "Description", "Progress", Course.Level.BEGINNER, instructor, 3, 3));
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> enrollmentService.updateProgress(course.getId(), 50, student.getId()));
+        assertEquals("User is not enrolled in this course", e.getMessage());
+    }
+
+    @Test
+    void testProgressBatchKeepsMaxPerCourse() {
+        User instructor = createUser("batch-instructor@example.com", User.Role.INSTRUCTOR);
+        User student = createUser("batch-student@example.com", User.Role.STUDENT);
+        Course first = courseRepository.save(new Course("Batch Course One", "Description", "Batch", Course.Level.BEGINNER, instructor, 3, 3));
+        Course second = courseRepository.save(new Course("Batch Course Two", "Description", "Batch", Course.Level.BEGINNER, instructor, 3, 3));
+        Course notEnrolled = courseRepository.save(new Course("Batch Course Three", "Description", "Batch", Course.Level.BEGINNER, instructor, 3, 3));
+        enrollmentService.enroll(first.getId(), student.getId(), User.Role.STUDENT);
+        enrollmentService.enroll(second.getId(), student.getId(), User.Role.STUDENT);
+        enrollmentService.updateProgress(first.getId(), 50, student.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<ProgressBatchDto.Entry> entries = List.of(
+                new ProgressBatchDto.Entry(first.getId(), 30, null),
+                new ProgressBatchDto.Entry(first.getId(), 80, null),
+                new ProgressBatchDto.Entry(second.getId(), 100, null),
+                new ProgressBatchDto.Entry(notEnrolled.getId(), 10, null),
+                new ProgressBatchDto.Entry(second.getId(), 20, null));
+        List<ProgressResultDto> results = enrollmentService.updateProgressBatch(student.getId(), entries);
+
+        assertEquals(List.of(ProgressResultDto.Outcome.SUPERSEDED, ProgressResultDto.Outcome.APPLIED,
+                        ProgressResultDto.Outcome.APPLIED, ProgressResultDto.Outcome.NOT_ENROLLED,
+                        ProgressResultDto.Outcome.SUPERSEDED),
+                results.stream().map(ProgressResultDto::getOutcome).toList());
+        assertEquals(100, results.get(4).getCurrentProgress());
+        assertEquals(1L, achievementRepository.countByUserIdAndType(student.getId(), Achievement.AchievementType.COURSE_COMPLETION));
+
+        // Replaying the same batch changes nothing
+        List<ProgressResultDto> replayed = enrollmentService.updateProgressBatch(student.getId(), entries);
+        assertEquals(ProgressResultDto.Outcome.STALE, replayed.get(1).getOutcome());
+        assertEquals(ProgressResultDto.Outcome.STALE, replayed.get(2).getOutcome());
+
+        entityManager.clear();
+        assertEquals(80, enrollmentRepository.findWithUserAndCourse(student.getId(), first.getId()).orElseThrow().getProgress());
+        assertEquals(Enrollment.CompletionStatus.COMPLETED,
+                enrollmentRepository.findWithUserAndCourse(student.getId(), second.getId()).orElseThrow().getCompletionStatus());
+    }
+
+    @Test
+    void testCohortEnrollmentSkipsExistingAndNonStudents() {
+        User instructor = createUser("cohort-instructor@example.com", User.Role.INSTRUCTOR);
+        User enrolled = createUser("cohort-enrolled@example.com", User.Role.STUDENT);
+        User first = createUser("cohort-first@example.com", User.Role.STUDENT);
+        User second = createUser("cohort-second@example.com", User.Role.STUDENT);
+        Course course = courseRepository.save(new Course("Cohort Course", "Description", "Cohort", Course.Level.BEGINNER, instructor, 3, 3));
+        enrollmentService.enroll(course.getId(), enrolled.getId(), User.Role.STUDENT);
+
+        List<Long> cohort = List.of(enrolled.getId(), first.getId(), second.getId(), second.getId(), instructor.getId(), -1L);
+        CohortEnrollmentResultDto result = enrollmentService.enrollCohort(course.getId(), cohort, instructor.getId(), User.Role.INSTRUCTOR);
+
+        assertEquals(5, result.getRequested());
+        assertEquals(2, result.getEnrolled());
+        assertEquals(3, result.getSkipped());
+        assertEquals(3L, enrollmentRepository.countByCourseId(course.getId()));
+        assertEquals(0, enrollmentService.enrollCohort(course.getId(), cohort, instructor.getId(), User.Role.INSTRUCTOR).getEnrolled());
+
+        entityManager.clear();
+        assertEquals(3, courseRepository.findById(course.getId()).orElseThrow().getStudentsEnrolled());
+        assertEquals(1, userService.getUserById(first.getId()).orElseThrow().getCurrentStreak());
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> enrollmentService.enrollCohort(course.getId(), cohort, first.getId(), User.Role.INSTRUCTOR));
+        assertEquals("Only the course instructor or admin can enroll a cohort in this course", e.getMessage());
+
+        RuntimeException empty = assertThrows(RuntimeException.class,
+                () -> enrollmentService.enrollCohort(course.getId(), List.of(), instructor.getId(), User.Role.INSTRUCTOR));
+        assertEquals("A cohort needs at least one user id", empty.getMessage());
+    }
+
+    private User createUser(String email, User.Role role) {
+        User user = new User();
+        user.setName("Enrollment User");
+        user.setEmail(email);
+        user.setPassword("password123");
+        user.setRole(role);
+        return userService.updateUser(user);
+    }
+}
@@ -0,0 +1,59 @@
+package com.eduquest.service;
+
+import com.eduquest.dto.CourseDto;
+import com.eduquest.dto.CursorPageDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PopularCoursesTest {
+
+    private PopularCourses popular;
+
+    @BeforeEach
+    void setUp() {
+        popular = new PopularCourses(3, 60_000);
+        popular.rebuild(List.of(course(1L, 50), course(2L, 40), course(3L, 30), course(4L, 20), course(5L, 10)));
+    }
+
+    @Test
+    void testServesPagesInsideTopKAndDefersTheRest() {
+        CursorPageDto<CourseDto> first = popular.findPage(null, 2);
+        assertEquals(List.of(1L, 2L), ids(first));
+        assertNotNull(first.getNextCursor());
+
+        // Course 4 might be next, but it is outside the top 3, so that page comes from the database
+        assertNull(popular.findPage(first.getNextCursor(), 2));
+    }
+
+    @Test
+    void testEnrollmentDeltasReorderAndPromote() {
+        popular.enrollmentChanged(5L, 45);
+        popular.enrollmentChanged(1L, -20);
+        assertEquals(List.of(5L, 2L, 1L), ids(popular.findPage(null, 3)));
+        assertEquals(55, popular.findPage(null, 1).getItems().get(0).getStudentsEnrolled());
+
+        // Dropping out of the top 3 lets the best course outside it in
+        popular.enrollmentChanged(1L, -25);
+        assertEquals(List.of(5L, 2L, 3L), ids(popular.findPage(null, 3)));
+
+        popular.remove(2L);
+        assertEquals(List.of(5L, 3L, 4L), ids(popular.findPage(null, 3)));
+    }
+
+    private static List<Long> ids(CursorPageDto<CourseDto> page) {
+        return page.getItems().stream().map(CourseDto::getId).collect(Collectors.toList());
+    }
+
+    private static CourseDto course(Long id, int studentsEnrolled) {
+        CourseDto course = new CourseDto();
+        course.setId(id);
+        course.setTitle("Course " + id);
+        course.setStudentsEnrolled(studentsEnrolled);
+        return course;
+    }
+}
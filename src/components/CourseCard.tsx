@@ -7,7 +7,7 @@ import { Link } from "react-router-dom";
 interface CourseCardProps {
   id: number;
   title: string;
-  description: string;
+  description?: string;
   instructorName: string;
   duration: number;
   studentsEnrolled: number;
@@ -57,9 +57,11 @@ const CourseCard = ({
         <h3 className="font-semibold text-lg leading-tight line-clamp-2">
           {title}
         </h3>
-        <p className="text-muted-foreground text-sm line-clamp-2">
-          {description}
-        </p>
+        {description && (
+          <p className="text-muted-foreground text-sm line-clamp-2">
+            {description}
+          </p>
+        )}
       </CardHeader>
 
       <CardContent className="space-y-3">
@@ -14,7 +14,8 @@ export interface User {
 export interface Course {
   id: number;
   title: string;
-  description: string;
+  // Only present on single-course responses; list endpoints omit it
+  description?: string;
   category: string;
   level: 'BEGINNER' | 'INTERMEDIATE' | 'ADVANCED';
   instructorId: number;
@@ -26,6 +27,44 @@ export interface Course {
   updatedAt: string;
 }
 
+// Search hits carry their relevance score; results arrive best first
+export interface CourseSearchResult extends Course {
+  score: number;
+}
+
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor: string | null;
+  limit: number;
+  hasMore: boolean;
+}
+
+export interface PageParams {
+  cursor?: string;
+  limit?: number;
+}
+
+// Any-of within a list filter, ranges inclusive, all-of across filters
+export interface CourseFilterCriteria {
+  category?: string[];
+  level?: Course['level'][];
+  instructorId?: number[];
+  minDuration?: number;
+  maxDuration?: number;
+  minLessons?: number;
+  maxLessons?: number;
+  minEnrolled?: number;
+}
+
+export interface CourseFilters extends CourseFilterCriteria, PageParams {}
+
+export interface CourseFacets {
+  totalCourses: number;
+  categories: Record<string, number>;
+  levels: Record<Course['level'], number>;
+  categoryLevels: Record<string, Record<Course['level'], number>>;
+}
+
 export interface Enrollment {
   id: number;
   userId: number;
@@ -86,6 +125,27 @@ export interface ProgressUpdateRequest {
   progress: number;
 }
 
+export interface CohortEnrollmentResult {
+  courseId: number;
+  requested: number;
+  enrolled: number;
+  skipped: number;
+}
+
+export interface ProgressBatchEntry {
+  courseId: number;
+  progress: number;
+  clientTimestamp?: string;
+}
+
+export interface ProgressResult {
+  courseId: number;
+  progress: number;
+  outcome: 'APPLIED' | 'SUPERSEDED' | 'STALE' | 'NOT_ENROLLED';
+  currentProgress: number | null;
+  completionStatus: Enrollment['completionStatus'] | null;
+}
+
 // Auth API functions
 export const authAPI = {
   login: async (data: LoginRequest): Promise<LoginResponse> => {
@@ -106,8 +166,15 @@ export const authAPI = {
 
 // Courses API functions
 export const coursesAPI = {
-  getAll: async (): Promise<Course[]> => {
-    const response = await api.get('/courses');
+  getAll: async (params: CourseFilters = {}): Promise<CursorPage<Course>> => {
+    // Repeat array params as category=a&category=b, which is what the backend binds
+    const response = await api.get('/courses', { params, paramsSerializer: { indexes: null } });
+    return response.data;
+  },
+
+  // Counts within the courses matching the given filters, or the whole catalog
+  getFacets: async (filters: CourseFilterCriteria = {}): Promise<CourseFacets> => {
+    const response = await api.get('/courses/facets', { params: filters, paramsSerializer: { indexes: null } });
     return response.data;
   },
 
@@ -130,28 +197,28 @@ export const coursesAPI = {
     await api.delete(`/courses/${id}`);
   },
 
-  getByCategory: async (category: string): Promise<Course[]> => {
-    const response = await api.get(`/courses/category/${category}`);
+  getByCategory: async (category: string, params: PageParams = {}): Promise<CursorPage<Course>> => {
+    const response = await api.get(`/courses/category/${category}`, { params });
     return response.data;
   },
 
-  getByLevel: async (level: string): Promise<Course[]> => {
-    const response = await api.get(`/courses/level/${level}`);
+  getByLevel: async (level: string, params: PageParams = {}): Promise<CursorPage<Course>> => {
+    const response = await api.get(`/courses/level/${level}`, { params });
     return response.data;
   },
 
-  search: async (query: string): Promise<Course[]> => {
-    const response = await api.get(`/courses/search?q=${encodeURIComponent(query)}`);
+  search: async (query: string, params: PageParams = {}): Promise<CursorPage<CourseSearchResult>> => {
+    const response = await api.get('/courses/search', { params: { q: query, ...params } });
     return response.data;
   },
 
-  getPopular: async (): Promise<Course[]> => {
-    const response = await api.get('/courses/popular');
+  getPopular: async (params: PageParams = {}): Promise<CursorPage<Course>> => {
+    const response = await api.get('/courses/popular', { params });
     return response.data;
   },
 
-  getRecent: async (): Promise<Course[]> => {
-    const response = await api.get('/courses/recent');
+  getRecent: async (params: PageParams = {}): Promise<CursorPage<Course>> => {
+    const response = await api.get('/courses/recent', { params });
     return response.data;
   },
 };
@@ -163,11 +230,16 @@ export const enrollmentsAPI = {
     return response.data;
   },
 
-  updateProgress: async (courseId: number, data: ProgressUpdateRequest): Promise<Enrollment> => {
+  updateProgress: async (courseId: number, data: ProgressUpdateRequest): Promise<ProgressResult> => {
     const response = await api.put(`/enroll/${courseId}/progress`, data);
     return response.data;
   },
 
+  updateProgressBatch: async (entries: ProgressBatchEntry[]): Promise<ProgressResult[]> => {
+    const response = await api.post('/enroll/progress:batch', { entries });
+    return response.data;
+  },
+
   getMyCourses: async (): Promise<Enrollment[]> => {
     const response = await api.get('/enroll/my-courses');
     return response.data;
@@ -182,6 +254,11 @@ export const enrollmentsAPI = {
     await api.delete(`/enroll/${courseId}`);
   },
 
+  enrollCohort: async (courseId: number, userIds: number[]): Promise<CohortEnrollmentResult> => {
+    const response = await api.post(`/enroll/course/${courseId}/cohort`, { userIds });
+    return response.data;
+  },
+
   getCourseEnrollments: async (courseId: number): Promise<Enrollment[]> => {
     const response = await api.get(`/enroll/course/${courseId}`);
     return response.data;
@@ -1,36 +1,67 @@
-import { useState } from "react";
+import { useEffect, useState } from "react";
 import Navigation from "@/components/Navigation";
 import CourseCard from "@/components/CourseCard";
 import { Button } from "@/components/ui/button";
 import { Input } from "@/components/ui/input";
 import { Select, SelectContent, SelectItem, SelectTrigger, SelectValue } from "@/components/ui/select";
 import { Search, Filter, Loader2 } from "lucide-react";
-import { useQuery } from "@tanstack/react-query";
-import { coursesAPI } from "@/lib/api-services";
+import { keepPreviousData, useInfiniteQuery, useQuery } from "@tanstack/react-query";
+import { coursesAPI, Course, CourseFilters, CursorPage } from "@/lib/api-services";
+
+const PAGE_SIZE = 50;
 
 const Courses = () => {
   const [searchTerm, setSearchTerm] = useState("");
   const [selectedCategory, setSelectedCategory] = useState("all");
   const [selectedLevel, setSelectedLevel] = useState("all");
 
-  // Fetch courses from API
-  const { data: courses = [], isLoading, error } = useQuery({
-    queryKey: ['courses'],
-    queryFn: coursesAPI.getAll,
+  // Category and level are filtered on the server, so every page is already narrowed
+  const filters: CourseFilters = {
+    ...(selectedCategory !== "all" && { category: [selectedCategory] }),
+    ...(selectedLevel !== "all" && { level: [selectedLevel as Course["level"]] }),
+  };
+
+  // Search runs on the server, which also matches descriptions; listings carry no description
+  const [query, setQuery] = useState("");
+  useEffect(() => {
+    const timer = setTimeout(() => setQuery(searchTerm.trim()), 300);
+    return () => clearTimeout(timer);
+  }, [searchTerm]);
+
+  // Fetch courses from API one cursor page at a time
+  const {
+    data: coursePages,
+    isLoading,
+    error,
+    fetchNextPage,
+    hasNextPage,
+    isFetchingNextPage,
+  } = useInfiniteQuery({
+    queryKey: query ? ['courses', 'search', query] : ['courses', filters],
+    queryFn: ({ pageParam }): Promise<CursorPage<Course>> => query
+      ? coursesAPI.search(query, { cursor: pageParam, limit: PAGE_SIZE })
+      : coursesAPI.getAll({ ...filters, cursor: pageParam, limit: PAGE_SIZE }),
+    initialPageParam: undefined as string | undefined,
+    getNextPageParam: (lastPage) => (lastPage.hasMore ? lastPage.nextCursor ?? undefined : undefined),
+    // Keep showing the previous results while a new search or filter loads, so the inputs stay mounted
+    placeholderData: keepPreviousData,
   });
+  const courses = coursePages?.pages.flatMap(page => page.items) ?? [];
 
-  // Get unique categories and levels from API data
-  const categories = ["all", ...Array.from(new Set(courses.map(course => course.category)))];
+  // Categories come from the whole catalog, not just the pages loaded so far
+  const { data: facets } = useQuery({
+    queryKey: ['courses', 'facets'],
+    queryFn: () => coursesAPI.getFacets(),
+  });
+  const categories = ["all", ...Object.keys(facets?.categories ?? {}).sort()];
   const levels = ["all", "BEGINNER", "INTERMEDIATE", "ADVANCED"];
 
-  // Filter courses based on search and filters
-  const filteredCourses = courses.filter((course) => {
-    const matchesSearch = course.title.toLowerCase().includes(searchTerm.toLowerCase()) ||
-      course.description.toLowerCase().includes(searchTerm.toLowerCase());
+  // Search hits are not filtered on the server, so apply category and level to them here
+  const filteredCourses = !query ? courses : courses.filter((course) => {
     const matchesCategory = selectedCategory === "all" || course.category === selectedCategory;
     const matchesLevel = selectedLevel === "all" || course.level === selectedLevel;
-    
-    return matchesSearch && matchesCategory && matchesLevel;
+
+    return matchesCategory && matchesLevel;
   });
 
   if (isLoading) {
@@ -132,7 +163,16 @@ const Courses = () => {
           ))}
         </div>
 
-        {filteredCourses.length === 0 && (
+        {hasNextPage && (
+          <div className="flex justify-center mt-8">
+            <Button variant="outline" onClick={() => fetchNextPage()} disabled={isFetchingNextPage}>
+              {isFetchingNextPage && <Loader2 className="h-4 w-4 mr-2 animate-spin" />}
+              Load more courses
+            </Button>
+          </div>
+        )}
+
+        {filteredCourses.length === 0 && !hasNextPage && (
           <div className="text-center py-12">
             <div className="text-muted-foreground mb-4">
               <Filter className="h-12 w-12 mx-auto mb-4 opacity-50" />